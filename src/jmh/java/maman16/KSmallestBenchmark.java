@@ -0,0 +1,131 @@
+package maman16;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Class KSmallestBenchmark
+ * The benchmark of the whole kSmallest loop: insert every number and take the smallest k numbers at the
+ * three check points of the assignment. The numbers are copied out with snapshot() instead of being printed,
+ * so the benchmark measures the structures and not System.out.
+ * Every structure is made once per trial and emptied with clear() before every invocation, outside the measured time,
+ * so the times do not include making it (for offheap, a direct buffer, which -prof gc does not count).
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KSmallestBenchmark
+{
+    @Param({"800", "1000000"})
+    public int n;                   // The size of the input.
+
+    @Param({"10", "100", "10000"})
+    public int k;
+
+    @Param({"UNIFORM", "SORTED", "REVERSE_SORTED", "ZIPF", "HEAVY_DUPLICATES"})
+    public WorkloadGenerator.Distribution distribution;     // The input, see WorkloadGenerator.
+
+    @Param({"0", "0.9"})
+    public double duplicates;       // The part of the input taken from a small pool of numbers.
+
+    @Param({"tree", "compressed", "offheap", "heap", "quickselect"})
+    public String structure;        // The TopK structure.
+
+    private int [] input;           // The numbers.
+    private int [] keys;            // The array that the snapshots are copied into.
+    private TopK topK;              // The structure, emptied before every invocation.
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        // A fixed seed, so every run measures the same numbers.
+        WorkloadGenerator generator = new WorkloadGenerator(distribution, Integer.MIN_VALUE, Integer.MAX_VALUE, 16);
+
+        generator.setDuplicates(duplicates);
+        input = generator.create(n);
+        keys = new int [k];
+        topK = create();
+    }
+
+    @Setup(Level.Invocation)
+    public void clear()
+    {
+        topK.clear();
+    }
+
+    @Benchmark
+    public void kSmallest(Blackhole blackhole)
+    {
+        int n1 = n / 4;
+        int n2 = n / 2;
+        int n3 = (3 * n) / 4;
+
+        for (int i = 0; i < n; i++)
+        {
+            topK.Insert(input[i]);
+
+            if (i == n1 || i == n2 || i == n3)
+                blackhole.consume(topK.snapshot(keys));
+        }
+    }
+
+    @Benchmark
+    public void kSmallestPrefiltered(Blackhole blackhole)
+    {
+        ThresholdPrefilter prefilter = new ThresholdPrefilter();
+        int from = 0;
+
+        // The same loop, with the numbers up to each check point given to the prefilter in one call.
+        for (int point : new int [] {n / 4, n / 2, (3 * n) / 4})
+        {
+            prefilter.InsertAll(topK, input, from, point + 1);
+            blackhole.consume(topK.snapshot(keys));
+            from = point + 1;
+        }
+
+        prefilter.InsertAll(topK, input, from, n);
+    }
+
+    /**
+     * @return: Returns an empty structure of the kind in the parameter.
+     */
+    private TopK create()
+    {
+        switch (structure)
+        {
+            case "compressed":
+                return new IntRedBlackTree(k, true);
+
+            case "offheap":
+                return new OffHeapRedBlackTree(k);
+
+            case "heap":
+                return new HeapTopK(k);
+
+            case "quickselect":
+                return new QuickselectTopK(k);
+
+            default:
+                return new IntRedBlackTree(k);
+        }
+    }
+}
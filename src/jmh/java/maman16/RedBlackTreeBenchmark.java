@@ -0,0 +1,194 @@
+package maman16;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Class RedBlackTreeBenchmark
+ * The benchmarks of the operations of RedBlackTree and IntRedBlackTree, and of TopDownRedBlackTree and FrozenRedBlackTree
+ * against RedBlackTree.
+ * Each benchmark runs over a whole input, so the scores are per input of n numbers.
+ * Run with -prof gc to see the allocation rate.
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedBlackTreeBenchmark
+{
+    @Param({"1000", "100000"})
+    public int n;                   // The size of the input.
+
+    @Param({"10", "100", "1000"})
+    public int k;                   // The maximum size of the tree.
+
+    @Param({"UNIFORM", "SORTED", "REVERSE_SORTED", "ZIPF", "HEAVY_DUPLICATES"})
+    public WorkloadGenerator.Distribution distribution;     // The input, see WorkloadGenerator.
+
+    @Param({"0", "0.9"})
+    public double duplicates;       // The part of the input taken from a small pool of numbers.
+
+    private int [] input;           // The numbers.
+    private Integer [] boxed;       // The same numbers, boxed once so the benchmarks don't measure boxing.
+    private RedBlackTree<Integer> full;     // A tree that holds the smallest k numbers of the input.
+    private RedBlackTree<Integer> all;      // A tree without a maximum size that holds the whole input.
+    private FrozenRedBlackTree<Integer> frozen;     // The frozen copy of all.
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        // A fixed seed, so every run measures the same numbers.
+        WorkloadGenerator generator = new WorkloadGenerator(distribution, Integer.MIN_VALUE, Integer.MAX_VALUE, 16);
+
+        generator.setDuplicates(duplicates);
+        input = generator.create(n);
+        boxed = new Integer [n];
+
+        for (int i = 0; i < n; i++)
+            boxed[i] = input[i];
+
+        full = new RedBlackTree<Integer>(k);
+
+        all = new RedBlackTree<Integer>();
+
+        for (Integer key : boxed)
+        {
+            full.Insert(key);
+            all.Insert(key);
+        }
+
+        frozen = all.freeze();
+    }
+
+    // Insert into an empty tree until it is full.
+    @Benchmark
+    public RedBlackTree<Integer> insertFilling()
+    {
+        RedBlackTree<Integer> rbt = new RedBlackTree<Integer>(k);
+
+        for (int i = 0; i < k && i < n; i++)
+            rbt.Insert(boxed[i]);
+
+        return rbt;
+    }
+
+    // Insert the whole input into a bounded tree, most inserts come when the tree is full.
+    @Benchmark
+    public RedBlackTree<Integer> insertSaturated()
+    {
+        RedBlackTree<Integer> rbt = new RedBlackTree<Integer>(k);
+
+        for (Integer key : boxed)
+            rbt.Insert(key);
+
+        return rbt;
+    }
+
+    // The same with the top-down tree.
+    @Benchmark
+    public TopDownRedBlackTree<Integer> topDownInsertSaturated()
+    {
+        TopDownRedBlackTree<Integer> rbt = new TopDownRedBlackTree<Integer>(k);
+
+        for (Integer key : boxed)
+            rbt.Insert(key);
+
+        return rbt;
+    }
+
+    // The same with the int version of the tree.
+    @Benchmark
+    public IntRedBlackTree intInsertSaturated()
+    {
+        IntRedBlackTree rbt = new IntRedBlackTree(k);
+
+        for (int key : input)
+            rbt.Insert(key);
+
+        return rbt;
+    }
+
+    // Fill a tree with k numbers, then insert smaller and smaller numbers, so every insert removes the maximum.
+    @Benchmark
+    public RedBlackTree<Integer> removeMaximum()
+    {
+        RedBlackTree<Integer> rbt = new RedBlackTree<Integer>(k);
+
+        for (int i = 0; i < k; i++)
+            rbt.Insert(Integer.MAX_VALUE - i);
+
+        for (int i = 0; i < n; i++)
+            rbt.Insert(i - n);
+
+        return rbt;
+    }
+
+    // removeMaximum with the top-down tree, which has no parent pointers.
+    @Benchmark
+    public TopDownRedBlackTree<Integer> topDownRemoveMaximum()
+    {
+        TopDownRedBlackTree<Integer> rbt = new TopDownRedBlackTree<Integer>(k);
+
+        for (int i = 0; i < k; i++)
+            rbt.Insert(Integer.MAX_VALUE - i);
+
+        for (int i = 0; i < n; i++)
+            rbt.Insert(i - n);
+
+        return rbt;
+    }
+
+    // Find the maximum of a full tree from its root.
+    @Benchmark
+    public RedBlackNode<Integer> treeMaximum()
+    {
+        return full.TreeMaximum(full.getRoot());
+    }
+
+    // Walk a full tree from the minimum through all the successors.
+    @Benchmark
+    public void treeSuccessor(Blackhole blackhole)
+    {
+        RedBlackNode<Integer> x = full.TreeMinimum(full.getRoot());
+
+        for (int i = 0; i < full.currSize; i++)
+        {
+            blackhole.consume(x.key);
+            x = full.TreeSuccessor(x);
+        }
+    }
+
+    // Find the rank of every number of the input in the tree of the whole input.
+    @Benchmark
+    public void rankPointer(Blackhole blackhole)
+    {
+        for (Integer key : boxed)
+            blackhole.consume(all.rank(key));
+    }
+
+    // The same in the frozen copy of the tree.
+    @Benchmark
+    public void rankFrozen(Blackhole blackhole)
+    {
+        for (Integer key : boxed)
+            blackhole.consume(frozen.rank(key));
+    }
+}
@@ -0,0 +1,354 @@
+package maman16;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Class TopKServerCheck
+ * A check of TopKServer and TopKClient on localhost, which starts a server on a free port and compares every answer
+ * with a model, the sorted keys that were sent. It is built with the benchmarks and runs on its own:
+ *
+ *     java -cp target/benchmarks.jar maman16.TopKServerCheck [clients]
+ *
+ * - Every client inserts into, queries and drops streams of its own, and every QUERY must match the model.
+ * - All the clients insert into the same streams at once. The smallest k keys do not depend on the order of the
+ *   inserts, so every shared stream must end up with the smallest k of all the keys sent to it.
+ * - Malformed INSERT lines between good ones must be answered with ERR and change nothing.
+ * - One client drops a stream while another has inserts on their way. The keys from before the drop must be gone,
+ *   and each line in flight reaches the server before the drop (and goes with it) or after it (and starts the stream
+ *   again), so the stream must hold the smallest keys of the last lines, from some line on.
+ * The check throws an IllegalStateException at the first wrong answer, and prints "ok" at the end.
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+public class TopKServerCheck
+{
+    // GLOBAL VARIABLES.
+    private static final int K = 20;               // The k of the server.
+    private static final int ROUNDS = 300;         // The operations of every client in every part.
+    private static final int STREAMS = 4;          // The streams of every client, and the shared streams.
+    private static final int MAX_KEY = 1000;       // The keys are in [-MAX_KEY, MAX_KEY], so many of them repeat.
+
+    /**
+     * The program runs all the parts of the check against one server.
+     *
+     * @param: arg, the count of clients, 8 by default.
+     */
+    public static void main(String arg[]) throws Exception
+    {
+        int clients = arg.length > 0 ? Integer.parseInt(arg[0]) : 8;
+
+        try (TopKServer server = new TopKServer(0, K))
+        {
+            server.start();
+            privateStreams(server.getPort(), clients);
+            sharedStreams(server.getPort(), clients);
+            malformedLines(server.getPort());
+            dropDuringInserts(server.getPort());
+        }
+
+        System.out.println("ok");
+    }
+
+    /**
+     * Every client works on its own streams, and checks every QUERY against its model.
+     *
+     * @param: port, the port of the server.
+     * @param: clients, the count of clients.
+     */
+    private static void privateStreams(int port, int clients) throws Exception
+    {
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+
+        for (int c = 0; c < clients; c++)
+        {
+            int client = c;
+
+            tasks.add(() ->
+            {
+                SplittableRandom random = new SplittableRandom(client);
+                Map<String, List<Integer>> model = new HashMap<String, List<Integer>>();
+
+                try (TopKClient topK = new TopKClient(port))
+                {
+                    for (int round = 0; round < ROUNDS; round++)
+                    {
+                        String id = "private-" + client + "-" + random.nextInt(STREAMS);
+                        int op = random.nextInt(10);
+
+                        if (op < 7)
+                            insert(topK, id, randomKeys(random), model.computeIfAbsent(id, s -> new ArrayList<Integer>()));
+
+                        else if (op < 9)
+                            expect(topK.query(id), model.getOrDefault(id, new ArrayList<Integer>()), "QUERY " + id);
+
+                        else
+                        {
+                            topK.drop(id);
+                            model.remove(id);
+                        }
+                    }
+
+                    for (Map.Entry<String, List<Integer>> entry : model.entrySet())
+                        expect(topK.query(entry.getKey()), entry.getValue(), "QUERY " + entry.getKey());
+                }
+
+                return null;
+            });
+        }
+
+        runAll(tasks);
+    }
+
+    /**
+     * All the clients insert into the same streams at once, and then the smallest keys of every stream are checked.
+     *
+     * @param: port, the port of the server.
+     * @param: clients, the count of clients.
+     */
+    private static void sharedStreams(int port, int clients) throws Exception
+    {
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        List<List<Integer>> models = new ArrayList<List<Integer>>();
+
+        for (int s = 0; s < STREAMS; s++)
+            models.add(new ArrayList<Integer>());
+
+        for (int c = 0; c < clients; c++)
+        {
+            int client = c;
+
+            tasks.add(() ->
+            {
+                SplittableRandom random = new SplittableRandom(1000 + client);
+
+                try (TopKClient topK = new TopKClient(port))
+                {
+                    for (int round = 0; round < ROUNDS; round++)
+                    {
+                        int s = random.nextInt(STREAMS);
+                        List<Integer> model = models.get(s);
+
+                        synchronized (model)
+                        {
+                            insert(topK, "shared-" + s, randomKeys(random), model);
+                        }
+                    }
+
+                    // The query waits for the inserts of this client to reach the trees.
+                    topK.query("shared-0");
+                }
+
+                return null;
+            });
+        }
+
+        runAll(tasks);
+
+        try (TopKClient topK = new TopKClient(port))
+        {
+            for (int s = 0; s < STREAMS; s++)
+                expect(topK.query("shared-" + s), models.get(s), "QUERY shared-" + s);
+        }
+    }
+
+    /**
+     * Bad INSERT lines, sent on a raw connection between good ones, must be answered with ERR and change nothing.
+     *
+     * @param: port, the port of the server.
+     */
+    private static void malformedLines(int port) throws IOException
+    {
+        String [] bad = {"INSERT bad 4 x 5", "INSERT bad 6 99999999999", "INSERT bad 7 -", "INSERT bad 8 9-"};
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII)))
+        {
+            out.write("INSERT bad 1 2 3\n");
+
+            for (String line : bad)
+                out.write(line + "\n");
+
+            out.write("INSERT bad -1\nQUERY bad\n");
+            out.flush();
+
+            for (String line : bad)
+            {
+                String answer = in.readLine();
+
+                if (answer == null || !answer.startsWith("ERR"))
+                    throw new IllegalStateException(line + ": expected ERR, got " + answer);
+            }
+
+            String answer = in.readLine();
+
+            if (!"OK 4 -1 1 2 3".equals(answer))
+                throw new IllegalStateException("QUERY bad: expected OK 4 -1 1 2 3, got " + answer);
+        }
+    }
+
+    /**
+     * One client drops a stream while another sends inserts to it, many times.
+     *
+     * @param: port, the port of the server.
+     */
+    private static void dropDuringInserts(int port) throws Exception
+    {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        SplittableRandom random = new SplittableRandom(2017);
+
+        try (TopKClient inserter = new TopKClient(port); TopKClient dropper = new TopKClient(port))
+        {
+            for (int round = 0; round < ROUNDS; round++)
+            {
+                String id = "race-" + round;
+                List<Integer> before = new ArrayList<Integer>();
+                List<int []> lines = new ArrayList<int []>();
+                CountDownLatch start = new CountDownLatch(1);
+
+                insert(inserter, id, randomKeys(random), before);
+                expect(inserter.query(id), before, "QUERY " + id);
+
+                for (int i = 0; i < 8; i++)
+                    lines.add(randomKeys(random));
+
+                Future<?> drop = executor.submit(() ->
+                {
+                    start.await();
+                    dropper.drop(id);
+                    return null;
+                });
+
+                start.countDown();
+
+                for (int [] line : lines)
+                    inserter.insert(id, line);
+
+                drop.get();
+                checkSuffix(inserter.query(id), lines, id);
+            }
+        }
+
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @param: got, the answer of a QUERY after the drop.
+     * @param: lines, the lines that were in flight during the drop.
+     * @param: id, the stream.
+     */
+    private static void checkSuffix(int [] got, List<int []> lines, String id)
+    {
+        List<Integer> suffix = new ArrayList<Integer>();
+
+        // No line reached the new stream.
+        if (got.length == 0)
+            return;
+
+        // The last line, the last two lines, and so on to all the lines.
+        for (int i = lines.size() - 1; i >= 0; i--)
+        {
+            for (int key : lines.get(i))
+                suffix.add(key);
+
+            if (Arrays.equals(got, smallest(suffix)))
+                return;
+        }
+
+        throw new IllegalStateException("QUERY " + id + " after DROP: " + Arrays.toString(got)
+                                        + " is not the smallest keys of the last lines");
+    }
+
+    /**
+     * The function sends keys to a stream and adds them to its model.
+     */
+    private static void insert(TopKClient topK, String id, int [] keys, List<Integer> model) throws IOException
+    {
+        topK.insert(id, keys);
+
+        for (int key : keys)
+            model.add(key);
+    }
+
+    /**
+     * @param: random, a random.
+     * @return: Returns 1 to 50 random keys.
+     */
+    private static int [] randomKeys(SplittableRandom random)
+    {
+        int [] keys = new int [1 + random.nextInt(50)];
+
+        for (int i = 0; i < keys.length; i++)
+            keys[i] = random.nextInt(-MAX_KEY, MAX_KEY + 1);
+
+        return keys;
+    }
+
+    /**
+     * @param: model, the keys sent to a stream.
+     * @return: Returns the smallest K of them, sorted, what a QUERY of the stream must answer.
+     */
+    private static int [] smallest(List<Integer> model)
+    {
+        int [] keys = new int [model.size()];
+
+        for (int i = 0; i < keys.length; i++)
+            keys[i] = model.get(i);
+
+        Arrays.sort(keys);
+        return Arrays.copyOf(keys, Math.min(K, keys.length));
+    }
+
+    /**
+     * The function throws if an answer is not the smallest keys of the model.
+     */
+    private static void expect(int [] got, List<Integer> model, String request)
+    {
+        int [] expected = smallest(model);
+
+        if (!Arrays.equals(got, expected))
+            throw new IllegalStateException(request + ": expected " + Arrays.toString(expected) + ", got "
+                                            + Arrays.toString(got));
+    }
+
+    /**
+     * The function runs the tasks at once, one thread each, and throws the first failure.
+     */
+    private static void runAll(List<Callable<Void>> tasks) throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+
+        try
+        {
+            for (Future<Void> future : executor.invokeAll(tasks))
+                future.get();
+        }
+
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+}
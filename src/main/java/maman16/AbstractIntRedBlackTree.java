@@ -0,0 +1,803 @@
+package maman16;
+
+/**
+ * Class AbstractIntRedBlackTree
+ * The algorithms of the course book on a bounded tree of int keys, shared by IntRedBlackTree and OffHeapRedBlackTree.
+ * A node is the index of its slot in a NodeStore, and slot 0 is the nil node, so the same code runs on parallel arrays
+ * and on records in a ByteBuffer. What only one of the trees needs (the counts of the compressed mode, the header of
+ * a mapped file) comes in through grow(), copySatellite() and changed().
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+abstract class AbstractIntRedBlackTree implements TopK
+{
+    // GLOBAL VARIABLES.
+    public static final int NIL = 0;            // The index of the nil node.
+    static final int BLACK = 0;                 // Possible color for a node.
+    static final int RED = 1;                   // Possible color for a node.
+    static final int INITIAL_CAPACITY = 16;
+
+    NodeStore store;                // The nodes.
+    int root = NIL;                 // Root initialized to nil.
+    int max = NIL;                  // The node holding the maximum key, nil while the tree is empty.
+    int nodes;                      // The number of nodes ever allocated, not counting nil.
+    int free = NIL;                 // The list of removed nodes that are ready for reuse, linked through their left child.
+
+    public final int k;             // The maximum size of the tree.
+    public int currSize;            // The current size of the tree.
+
+    StringBuilder text;             // The buffer of printkMin() and printDelta(), kept for the next print.
+
+    /**
+     * Constructor which sets the maximum size of the tree and its nodes.
+     *
+     * @param: k, the maximum size of the tree.
+     * @param: store, the nodes, with room for nil at least.
+     */
+    AbstractIntRedBlackTree(int k, NodeStore store)
+    {
+        this.k = k;
+        this.store = store;
+    }
+
+    // The fields of node x.
+
+    final int key(int x)
+    {
+        return store.key(x);
+    }
+
+    final int left(int x)
+    {
+        return store.left(x);
+    }
+
+    final int right(int x)
+    {
+        return store.right(x);
+    }
+
+    final int parent(int x)
+    {
+        return store.parent(x);
+    }
+
+    final int color(int x)
+    {
+        return store.color(x);
+    }
+
+    final void setKey(int x, int k)
+    {
+        store.setKey(x, k);
+    }
+
+    final void setLeft(int x, int y)
+    {
+        store.setLeft(x, y);
+    }
+
+    final void setRight(int x, int y)
+    {
+        store.setRight(x, y);
+    }
+
+    final void setParent(int x, int y)
+    {
+        store.setParent(x, y);
+    }
+
+    final void setColor(int x, int c)
+    {
+        store.setColor(x, c);
+    }
+
+    /**
+     * Function for checking if the node is nil.
+     *
+     * @param: x, The node we must check to see whether it's nil.
+     * @return: Returns true if x is nil and false otherwise.
+     */
+    final boolean isNil(int x)
+    {
+        return x == NIL;
+    }
+
+    /**
+     * @return: Returns the root of the tree, nil if the tree is empty.
+     */
+    public int getRoot()
+    {
+        return root;
+    }
+
+    /**
+     * @return: Returns the node holding the maximum key, nil if the tree is empty.
+     */
+    public int getMax()
+    {
+        return max;
+    }
+
+    /**
+     * @param: x, a node of the tree.
+     * @return: Returns the key of x.
+     */
+    public int getKey(int x)
+    {
+        return key(x);
+    }
+
+    /**
+     * @param: x, a node of the tree.
+     * @return: Returns how many times the key of x is in the tree, 1 unless the tree is compressed.
+     */
+    public int getCount(int x)
+    {
+        return 1;
+    }
+
+    /**
+     * The function allocates a new node, a removed node if there is one, and grows the store when it is full.
+     *
+     * @param: k, the key of the new node.
+     * @return: Returns the new node.
+     */
+    final int newNode(int k)
+    {
+        int z;
+
+        // Take a removed node from the free list.
+        if (!isNil(free))
+        {
+            z = free;
+            free = left(z);
+            setKey(z, k);
+            return z;
+        }
+
+        z = ++nodes;
+
+        if (z == store.capacity())
+            grow((int) Math.min((long) z * 2, (long) this.k + 1));
+
+        setKey(z, k);
+        return z;
+    }
+
+    /**
+     * The function puts a node that left the tree on the free list, for newNode to reuse.
+     *
+     * @param: z, the node.
+     */
+    final void release(int z)
+    {
+        setLeft(z, free);
+        free = z;
+    }
+
+    /**
+     * The function grows the store, a tree with more data for every node grows it too.
+     *
+     * @param: capacity, the new number of nodes, counting nil.
+     */
+    void grow(int capacity)
+    {
+        store.grow(capacity);
+    }
+
+    /**
+     * Remove moves the key of y into z when it removes the successor y instead of z,
+     * a tree with more data for every node moves it too.
+     *
+     * @param: z, the node that stays.
+     * @param: y, the node that leaves.
+     */
+    void copySatellite(int z, int y)
+    {
+    }
+
+    /**
+     * Called after Insert changed the tree.
+     */
+    void changed()
+    {
+    }
+
+    /**
+     * The Algorithm is based on the one in page 234 in the course book.
+     * The function Performs a left Rotate around x.
+     *
+     * @param: x, The node which the lefRotate is to be performed on.
+     */
+    private void leftRotate(int x)
+    {
+        int y = right(x);               // Set Y.
+        setRight(x, left(y));           // Turn y's left subtree into x's right subtree.
+
+        if (!isNil(left(y)))            // Check for existence of y.left and make pointer changes.
+            setParent(left(y), x);
+
+        setParent(y, parent(x));        // Link x's parent to y.
+
+        if (isNil(parent(x)))           // x's parent is nil.
+            root = y;
+
+        else if (left(parent(x)) == x)  // x is the left child of its parent.
+            setLeft(parent(x), y);
+
+            else                        // x is the right child of its parent.
+                setRight(parent(x), y);
+
+        setLeft(y, x);                  // Put x on y's left.
+        setParent(x, y);
+    }
+
+    /**
+     * The Algorithm based on the one in page 187 in the study instructions book.
+     * The function Performs a right Rotate around x.
+     *
+     * @param: x, The node which the rightRotate is to be performed on.
+     */
+    private void rightRotate(int x)
+    {
+        int y = left(x);                    // Set Y.
+        setLeft(x, right(y));               // Turn y's right subtree into x's left subtree.
+
+        if (!isNil(right(y)))               // Check for existence of y.right and make pointer changes.
+            setParent(right(y), x);
+
+        setParent(y, parent(x));            // Link x's parent to y.
+
+        if (isNil(parent(x)))               // x's parent is nil.
+            root = y;
+
+        else if (right(parent(x)) == x)     // x is the right child of its parent.
+            setRight(parent(x), y);
+
+            else                            // x is the left child of its parent.
+                setLeft(parent(x), y);
+
+        setRight(y, x);                     // Put x on y's right.
+        setParent(x, y);
+    }
+
+    /**
+     * The Algorithm is based on the one in page 217 in the course book.
+     *
+     * @param: x, a node.
+     * @return: Returns the node with the minimum key in the subtree of x.
+     */
+    public final int TreeMinimum(int x)
+    {
+        // While there is a smaller key, keep going left.
+        while (!isNil(left(x)))
+            x = left(x);
+
+        return x;
+    }
+
+    /**
+     * The Algorithm is based on the one in page 217 in the course book.
+     *
+     * @param: x, a node.
+     * @return: Returns the node with the maximum key in the subtree of x.
+     */
+    public final int TreeMaximum(int x)
+    {
+        // While there is a bigger key, keep going right.
+        while (!isNil(right(x)))
+            x = right(x);
+
+        return x;
+    }
+
+    /**
+     * The Algorithm is based on the one in page 218 in the course book.
+     *
+     * @param: x, a node whose successor we must find.
+     * @return: Returns the node that has the next higher key in the Tree after x, or nil if x is the maximum.
+     */
+    public final int TreeSuccessor(int x)
+    {
+        // If x.right is not nil, call treeMinimum(x.right) and return its value.
+        if (!isNil(right(x)))
+            return TreeMinimum(right(x));
+
+        int y = parent(x);
+
+        // While x is its parents right child:
+        while (!isNil(y) && x == right(y))
+        {
+            // Keep moving up in the tree.
+            x = y;
+            y = parent(y);
+        }
+
+        // Return successor.
+        return y;
+    }
+
+    /**
+     * The mirror image of TreeSuccessor.
+     *
+     * @param: x, a node whose predecessor we must find.
+     * @return: Returns the node that has the next lower key in the Tree before x, or nil if x is the minimum.
+     */
+    public final int TreePredecessor(int x)
+    {
+        // If x.left is not nil, call treeMaximum(x.left) and return its value.
+        if (!isNil(left(x)))
+            return TreeMaximum(left(x));
+
+        int y = parent(x);
+
+        // While x is its parents left child:
+        while (!isNil(y) && x == left(y))
+        {
+            // Keep moving up in the tree.
+            x = y;
+            y = parent(y);
+        }
+
+        // Return predecessor.
+        return y;
+    }
+
+    /**
+     * A function that calls the actuall function.
+     * Once the tree is full, a key which is not smaller than the maximum is rejected with a single compare,
+     * and an accepted key reuses the node of the evicted maximum.
+     *
+     * @param: the key you want to insert to the tree.
+     */
+    public void Insert(int k)
+    {
+        int z;
+
+        // If the tree is full (current size = k).
+        if (currSize == this.k)
+        {
+                // If the key is not smaller then the maximum, we don't insert it and end the program.
+                if (isNil(max) || k >= key(max))
+                    return;
+
+                // Else, we delete the maximum and reuse its node for the new key.
+                z = max;
+                max = TreePredecessor(z);
+                Remove(z);
+                setKey(z, k);
+                InsertNode(z);  // Call the actual Insert function.
+        }
+
+        // If the tree is not full yet, insert a new node to the tree.
+        else
+        {
+            z = newNode(k);
+            InsertNode(z);  // Call the actual Insert function.
+            currSize++;
+        }
+
+        changed();
+    }
+
+    /**
+     * The Algorithm is based on Tree-Search in the course book.
+     *
+     * @param: k, the key we search.
+     * @return: Returns a node with the key, or nil if the key is not in the tree.
+     */
+    public final int Search(int k)
+    {
+        int x = root;
+
+        while (!isNil(x) && k != key(x))
+        {
+            if (k < key(x))
+                x = left(x);
+
+            else
+                x = right(x);
+        }
+
+        return x;
+    }
+
+    /**
+     * The Algorithm is based on the one in page 236 in the course book.
+     * The function inserts the node z into the appropriate position in the tree.
+     *
+     * @param: z, the node to be inserted into the Tree rooted at root.
+     */
+    final void InsertNode(int z)
+    {
+            // Create a reference to root & initialize a node to nil.
+            int y = NIL;
+            int x = root;
+            int k = key(z);
+
+            while (!isNil(x))
+            {
+                y = x;
+
+                if (k < key(x))         // If z.key is < than the current key, go left.
+                    x = left(x);
+
+                else                    // Else, if z.key >= x.key so go right.
+                    x = right(x);
+            }
+
+            // Initialize z's children to nil, z's parent to y and z's color to red.
+            setLeft(z, NIL);
+            setRight(z, NIL);
+            setParent(z, y);
+            setColor(z, RED);
+
+            // Depending on the value of y.key, put z as the left or right child of y.
+            if (isNil(y))
+                root = z;
+
+            else if (k < key(y))
+                setLeft(y, z);
+
+                else
+                    setRight(y, z);
+
+            // Equal keys go right, so z is the new maximum when it is not smaller than the old one.
+            if (isNil(max) || k >= key(max))
+                max = z;
+
+            // Call insertFixup(z).
+            InsertFixup(z);
+    }
+
+    /**
+     * The Algorithm is based on the one in page 236 in the course book.
+     * The function fixes up the violation of the red-black properties that may have been caused during insert(z).
+     *
+     * @param: z, the node which was inserted and may have caused a violation of the red-black properties.
+     */
+    private void InsertFixup(int z)
+    {
+        int y;
+
+        // While there is a violation of the red-black properties..
+        while (color(parent(z)) == RED)
+        {
+            if (parent(z) == left(parent(parent(z))))           // If z's parent is the the left child of it's parent.
+            {
+                y = right(parent(parent(z)));                   // Initialize y to z 's cousin.
+
+                // Case 1: if y is red...recolor.
+                if (color(y) == RED)
+                {
+                    setColor(parent(z), BLACK);
+                    setColor(y, BLACK);
+                    setColor(parent(parent(z)), RED);
+                    z = parent(parent(z));
+                }
+
+                // Case 2: if y is black & z is a right child.
+                else if (z == right(parent(z)))
+                {
+                    // leftRotate around z's parent.
+                    z = parent(z);
+                    leftRotate(z);
+                }
+
+                // Case 3: else y is black & z is a left child.
+                else
+                {
+                    // Recolor and rotate round z's grandpa.
+                    setColor(parent(z), BLACK);
+                    setColor(parent(parent(z)), RED);
+                    rightRotate(parent(parent(z)));
+                }
+            }
+
+            // If z's parent is the right child of it's parent.
+            else
+            {
+                y = left(parent(parent(z)));                    // Initialize y to z's cousin.
+
+                // Case 1: if y is red, recolor.
+                if (color(y) == RED)
+                {
+                    setColor(parent(z), BLACK);
+                    setColor(y, BLACK);
+                    setColor(parent(parent(z)), RED);
+                    z = parent(parent(z));
+                }
+
+                // Case 2: if y is black and z is a left child.
+                else if (z == left(parent(z)))
+                {
+                    // rightRotate around z's parent
+                    z = parent(z);
+                    rightRotate(z);
+                }
+
+                // Case 3: if y  is black and z is a right child.
+                else
+                {
+                    // Recolor and rotate around z's grandpa.
+                    setColor(parent(z), BLACK);
+                    setColor(parent(parent(z)), RED);
+                    leftRotate(parent(parent(z)));
+                }
+            }
+        }
+
+        // Color root black at all times.
+        setColor(root, BLACK);
+    }
+
+    /**
+     * The Algorithm is based on the one in page 242 in the course book.
+     * The function remove's z from the tree rooted at root.
+     *
+     * @param: z, the node we want to delete.
+     * @return: Returns the record that left the tree, z or its successor whose key was moved into z.
+     */
+    final int Remove(int z)
+    {
+        // Declare variables.
+        int x;
+        int y;
+
+        // If either one of z's children is nil, then we must remove z.
+        if (isNil(left(z)) || isNil(right(z)))
+            y = z;
+
+        // Else we must remove the successor of z.
+        else y = TreeSuccessor(z);
+
+        // Let x be the left or right child of y (y can only have one child).
+        if (!isNil(left(y)))
+            x = left(y);
+
+        else
+            x = right(y);
+
+        // Link x's parent to y's parent.
+        setParent(x, parent(y));
+
+        // If y's parent is nil, then x is the root.
+        if (isNil(parent(y)))
+            root = x;
+
+        // Else if y is a left child, set x to be y's left sibling.
+        else if (left(parent(y)) == y)
+            setLeft(parent(y), x);
+
+        // Else if y is a right child, set x to be y's right sibling.
+        else if (right(parent(y)) == y)
+            setRight(parent(y), x);
+
+        // If y != z, trasfer y's satellite data into z.
+        if (y != z)
+        {
+            setKey(z, key(y));
+            copySatellite(z, y);
+        }
+
+        // If y's color is black, it is a violation of the red-black properties so call removeFixup().
+        if (color(y) == BLACK)
+            RemoveFixup(x);
+
+        return y;
+    }
+
+    /**
+     * The Algorithm is based on the one in page 243 in the course book.
+     * The function restores the red-black properties that may have been violated during the removal of a node in remove(z).
+     *
+     * @param: x, the child of the deleted node from remove(z).
+     */
+    private void RemoveFixup(int x)
+    {
+        int w;
+
+        // While we haven't fixed the tree completely...
+        while (x != root && color(x) == BLACK)
+        {
+            if (x == left(parent(x)))           // If x is it's parent's left child.
+            {
+                // Set w to x's sibling.
+                w = right(parent(x));
+
+                // Case 1: w's color is red.
+                if (color(w) == RED)
+                {
+                    setColor(w, BLACK);
+                    setColor(parent(x), RED);
+                    leftRotate(parent(x));
+                    w = right(parent(x));
+                }
+
+                // Case 2: both of w's children are black.
+                if (color(left(w)) == BLACK && color(right(w)) == BLACK)
+                {
+                    setColor(w, RED);
+                    x = parent(x);
+                }
+
+                // Case 3 and Case 4.
+                else
+                {
+
+                    // Case 3: w's right child is black.
+                    if (color(right(w)) == BLACK)
+                    {
+                        setColor(left(w), BLACK);
+                        setColor(w, RED);
+                        rightRotate(w);
+                        w = right(parent(x));
+                    }
+
+                    // Case 4: w = black, w.right = red.
+                    setColor(w, color(parent(x)));
+                    setColor(parent(x), BLACK);
+                    setColor(right(w), BLACK);
+                    leftRotate(parent(x));
+                    x = root;
+                }
+            }
+
+            else       // If x is it's parent's right child.
+            {
+                // Set w to x's sibling.
+                w = left(parent(x));
+
+                // Case 1: w's color is red.
+                if (color(w) == RED)
+                {
+                    setColor(w, BLACK);
+                    setColor(parent(x), RED);
+                    rightRotate(parent(x));
+                    w = left(parent(x));
+                }
+
+                // Case 2: both of w's children are black.
+                if (color(right(w)) == BLACK && color(left(w)) == BLACK)
+                {
+                    setColor(w, RED);
+                    x = parent(x);
+                }
+
+                // Case 3 and Case 4.
+                else
+                {
+
+                    // Case 3: w's left child is black.
+                    if (color(left(w)) == BLACK)
+                    {
+                        setColor(right(w), BLACK);
+                        setColor(w, RED);
+                        leftRotate(w);
+                        w = left(parent(x));
+                    }
+
+                    // Case 4: w = black, and w.left = red.
+                    setColor(w, color(parent(x)));
+                    setColor(parent(x), BLACK);
+                    setColor(left(w), BLACK);
+                    rightRotate(parent(x));
+                    x = root;
+                }
+            }
+        }
+
+        // Set x to black to ensure there is no violation of red-black properties.
+        setColor(x, BLACK);
+    }
+
+    /**
+     * @return: Returns the current size.
+     */
+    public int size()
+    {
+        return currSize;
+    }
+
+    /**
+     * The function empties the tree. The nodes are kept, and newNode hands them out again from the first one.
+     */
+    public void clear()
+    {
+        root = NIL;
+        max = NIL;
+        nodes = 0;
+        free = NIL;
+        currSize = 0;
+        changed();
+    }
+
+    /**
+     * @return: Returns the maximum once the tree is full, Long.MAX_VALUE before.
+     */
+    public long threshold()
+    {
+        if (currSize < k)
+            return Long.MAX_VALUE;
+
+        return isNil(max) ? Long.MIN_VALUE : key(max);
+    }
+
+    /**
+     * The function copies the keys of the tree into dest in sorted order, without any string work.
+     *
+     * @param: dest, the array to fill, only its first dest.length keys are copied if the tree is bigger.
+     * @return: Returns the number of keys copied.
+     */
+    public int snapshot(int [] dest)
+    {
+        int x = TreeMinimum(root);
+        int copied = 0;
+
+        // A compressed node is copied as many times as its count.
+        while (!isNil(x) && copied < dest.length)
+        {
+            for (int i = getCount(x); i > 0 && copied < dest.length; i--)
+                dest[copied++] = key(x);
+
+            x = TreeSuccessor(x);
+        }
+
+        return copied;
+    }
+
+    /**
+     * @return: Returns a new array with the keys of the tree in sorted order.
+     */
+    public int [] toSortedArray()
+    {
+        int [] keys = new int [currSize];
+        snapshot(keys);
+        return keys;
+    }
+
+    /**
+     * The function prints the tree with one write to System.out.
+     */
+    public void printkMin()
+    {
+       printkMin(currSize);
+    }
+
+    /**
+     * The function prints only the smallest keys of the tree with one write to System.out.
+     * The keys are written into a buffer that is kept for the next print.
+     *
+     * @param: count, the number of keys to print.
+     */
+    public void printkMin(int count)
+    {
+       if (text == null)
+           text = new StringBuilder();
+
+       text.setLength(0);
+       printkMin(count, text);
+       System.out.print(text);
+    }
+
+    /**
+     * The Algorithm is based on the one in page 214 in the course book.
+     * Instead of recursion, it walks from the minimum through the successors, so it needs no stack,
+     * and it stops after count keys. A compressed node is written as many times as its count.
+     *
+     * @param: count, the number of keys to write.
+     * @param: out, where the keys are written.
+     */
+    public void printkMin(int count, StringBuilder out)
+    {
+       int x = TreeMinimum(root);
+
+       for (int i = 0; i < count && !isNil(x); x = TreeSuccessor(x))
+       {
+            for (int j = getCount(x); j > 0 && i < count; j--, i++)
+                out.append(key(x)).append(' ');
+       }
+    }
+}
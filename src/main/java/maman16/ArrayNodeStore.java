@@ -0,0 +1,97 @@
+package maman16;
+
+import java.util.Arrays;
+
+/**
+ * Class ArrayNodeStore
+ * The nodes of an IntRedBlackTree, in parallel arrays: node x is made of key[x], left[x], right[x], parent[x] and color[x].
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+final class ArrayNodeStore implements NodeStore
+{
+    private int[] key;
+    private int[] left;
+    private int[] right;
+    private int[] parent;
+    private byte[] color;
+
+    /**
+     * Constructor which makes the arrays, all the nodes black.
+     *
+     * @param: capacity, the number of slots, counting nil.
+     */
+    ArrayNodeStore(int capacity)
+    {
+        key = new int[capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+        parent = new int[capacity];
+        color = new byte[capacity];     // nil is black.
+    }
+
+    public int key(int x)
+    {
+        return key[x];
+    }
+
+    public int left(int x)
+    {
+        return left[x];
+    }
+
+    public int right(int x)
+    {
+        return right[x];
+    }
+
+    public int parent(int x)
+    {
+        return parent[x];
+    }
+
+    public int color(int x)
+    {
+        return color[x];
+    }
+
+    public void setKey(int x, int k)
+    {
+        key[x] = k;
+    }
+
+    public void setLeft(int x, int y)
+    {
+        left[x] = y;
+    }
+
+    public void setRight(int x, int y)
+    {
+        right[x] = y;
+    }
+
+    public void setParent(int x, int y)
+    {
+        parent[x] = y;
+    }
+
+    public void setColor(int x, int c)
+    {
+        color[x] = (byte) c;
+    }
+
+    public int capacity()
+    {
+        return key.length;
+    }
+
+    public void grow(int capacity)
+    {
+        key = Arrays.copyOf(key, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        color = Arrays.copyOf(color, capacity);
+    }
+}
@@ -0,0 +1,120 @@
+package maman16;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Class BufferNodeStore
+ * The nodes of an OffHeapRedBlackTree, records of 16 bytes in a ByteBuffer: the key, the left child, the right child,
+ * and the parent with the color in its lowest bit. The records start after a header, which the tree reads and writes
+ * through buffer().
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+final class BufferNodeStore implements NodeStore
+{
+    // A node record, the offsets of its fields.
+    private static final int KEY = 0;
+    private static final int LEFT = 4;
+    private static final int RIGHT = 8;
+    private static final int PARENT = 12;       // The parent shifted left by one, and the color in the lowest bit.
+    static final int NODE_BYTES = 16;
+
+    private ByteBuffer buffer;      // The header and the records, a MappedByteBuffer if the tree is in a file.
+    private final int headerBytes;  // The size of the header, the offset of record 0.
+
+    /**
+     * Constructor of the records of a buffer.
+     *
+     * @param: buffer, the buffer, with its byte order already set.
+     * @param: headerBytes, the size of the header before the records.
+     */
+    BufferNodeStore(ByteBuffer buffer, int headerBytes)
+    {
+        this.buffer = buffer;
+        this.headerBytes = headerBytes;
+    }
+
+    /**
+     * @return: Returns the buffer, a new one after grow().
+     */
+    ByteBuffer buffer()
+    {
+        return buffer;
+    }
+
+    private int offset(int x)
+    {
+        return headerBytes + x * NODE_BYTES;
+    }
+
+    public int key(int x)
+    {
+        return buffer.getInt(offset(x) + KEY);
+    }
+
+    public int left(int x)
+    {
+        return buffer.getInt(offset(x) + LEFT);
+    }
+
+    public int right(int x)
+    {
+        return buffer.getInt(offset(x) + RIGHT);
+    }
+
+    public int parent(int x)
+    {
+        return buffer.getInt(offset(x) + PARENT) >>> 1;
+    }
+
+    public int color(int x)
+    {
+        return buffer.getInt(offset(x) + PARENT) & 1;
+    }
+
+    public void setKey(int x, int k)
+    {
+        buffer.putInt(offset(x) + KEY, k);
+    }
+
+    public void setLeft(int x, int y)
+    {
+        buffer.putInt(offset(x) + LEFT, y);
+    }
+
+    public void setRight(int x, int y)
+    {
+        buffer.putInt(offset(x) + RIGHT, y);
+    }
+
+    public void setParent(int x, int y)
+    {
+        int o = offset(x) + PARENT;
+        buffer.putInt(o, (y << 1) | (buffer.getInt(o) & 1));
+    }
+
+    public void setColor(int x, int c)
+    {
+        int o = offset(x) + PARENT;
+        buffer.putInt(o, (buffer.getInt(o) & ~1) | c);
+    }
+
+    public int capacity()
+    {
+        return (buffer.capacity() - headerBytes) / NODE_BYTES;
+    }
+
+    /**
+     * Only a direct buffer grows, into a bigger direct buffer with the header and the records copied.
+     * A mapped file is made with room for all the k + 1 records, so it is never full.
+     */
+    public void grow(int capacity)
+    {
+        ByteBuffer bigger = ByteBuffer.allocateDirect(offset(capacity)).order(buffer.order());
+
+        buffer.clear();
+        bigger.put(buffer);
+        buffer = bigger;
+    }
+}
@@ -0,0 +1,210 @@
+package maman16;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Class ConcurrentRedBlackTree
+ * A RedBlackTree that one thread can insert into while other threads read its minimum, maximum and smallest keys.
+ * The writers take the write lock of a StampedLock, one at a time. The readers don't lock at all: they read under an
+ * optimistic stamp and check at the end that no write happened in the meantime, and only after a few failed tries
+ * they take the read lock. So readers don't slow each other down, and they almost never make the writer wait.
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+public class ConcurrentRedBlackTree<T extends Comparable<T>>
+{
+    // GLOBAL VARIABLES.
+    private static final int OPTIMISTIC_TRIES = 3;     // Optimistic tries before a reader takes the read lock.
+
+    private final RedBlackTree<T> rbt;                  // The tree.
+    private final StampedLock lock;                     // The lock of the tree.
+
+    // Default Constructor.
+    public ConcurrentRedBlackTree(int k)
+    {
+        rbt = new RedBlackTree<T>(k);
+        lock = new StampedLock();
+    }
+
+    /**
+     * The function inserts a key under the write lock.
+     *
+     * @param: key, the key you want to insert to the tree.
+     */
+    public void Insert(T key)
+    {
+        long stamp = lock.writeLock();
+
+        try
+        {
+            rbt.Insert(key);
+        }
+        finally
+        {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * The function inserts a few keys under one write lock, so the lock is taken once for all of them.
+     *
+     * @param: keys, the keys you want to insert to the tree.
+     */
+    public void InsertAll(List<T> keys)
+    {
+        long stamp = lock.writeLock();
+
+        try
+        {
+            for (T key : keys)
+                rbt.Insert(key);
+        }
+        finally
+        {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return: Returns the current size of the tree.
+     */
+    public int size()
+    {
+        for (int i = 0; i < OPTIMISTIC_TRIES; i++)
+        {
+            long stamp = lock.tryOptimisticRead();
+            int size = rbt.currSize;
+
+            if (stamp != 0 && lock.validate(stamp))
+                return size;
+        }
+
+        long stamp = lock.readLock();
+
+        try
+        {
+            return rbt.currSize;
+        }
+        finally
+        {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return: Returns the minimum key in the tree, null if it is empty.
+     */
+    public T minimum()
+    {
+        for (int i = 0; i < OPTIMISTIC_TRIES; i++)
+        {
+            long stamp = lock.tryOptimisticRead();
+            T key;
+
+            // A walk over a tree that is changing may throw, that only means this try failed.
+            try
+            {
+                key = rbt.minimumUnlocked();
+            }
+            catch (RuntimeException e)
+            {
+                continue;
+            }
+
+            if (stamp != 0 && lock.validate(stamp))
+                return key;
+        }
+
+        long stamp = lock.readLock();
+
+        try
+        {
+            return rbt.minimumUnlocked();
+        }
+        finally
+        {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return: Returns the maximum key in the tree, null if it is empty.
+     */
+    public T maximum()
+    {
+        for (int i = 0; i < OPTIMISTIC_TRIES; i++)
+        {
+            long stamp = lock.tryOptimisticRead();
+            T key = rbt.maximumKey();
+
+            if (stamp != 0 && lock.validate(stamp))
+                return key;
+        }
+
+        long stamp = lock.readLock();
+
+        try
+        {
+            return rbt.maximumKey();
+        }
+        finally
+        {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * The function copies the smallest keys of the tree into dest in sorted order.
+     *
+     * @param: dest, the array to fill, only its first dest.length keys are copied if the tree is bigger.
+     * @return: Returns the number of keys copied.
+     */
+    public int snapshot(T [] dest)
+    {
+        for (int i = 0; i < OPTIMISTIC_TRIES; i++)
+        {
+            long stamp = lock.tryOptimisticRead();
+            int count;
+
+            // A walk over a tree that is changing may throw, that only means this try failed.
+            try
+            {
+                count = rbt.snapshotUnlocked(dest);
+            }
+            catch (RuntimeException e)
+            {
+                continue;
+            }
+
+            if (stamp != 0 && count >= 0 && lock.validate(stamp))
+                return count;
+        }
+
+        long stamp = lock.readLock();
+
+        try
+        {
+            return rbt.snapshot(dest);
+        }
+        finally
+        {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @param: j, the number of keys we want.
+     * @return: Returns a list of the j smallest keys, sorted.
+     */
+    public List<T> smallest(int j)
+    {
+        @SuppressWarnings("unchecked")
+        T [] keys = (T []) new Comparable<?> [Math.max(0, Math.min(j, size()))];
+        int count = snapshot(keys);
+
+        return Arrays.asList(Arrays.copyOf(keys, count));
+    }
+}
@@ -0,0 +1,213 @@
+package maman16;
+
+import java.util.Arrays;
+
+/**
+ * Class CountingTopK
+ * This class keeps the smallest k numbers like a bounded IntRedBlackTree, for numbers in a small known range [min, max].
+ * Instead of a tree it holds a count for every number in the range, and the cutoff, the biggest number that is kept.
+ * Insert takes O(1) (the cutoff only moves down once the structure is full), and printing the smallest k numbers
+ * takes one scan of the counts up to the cutoff.
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+public class CountingTopK implements TopK
+{
+    // GLOBAL VARIABLES.
+    private int min;                // The smallest number in the range.
+    private int max;                // The largest number in the range.
+    private int[] counts;           // counts[i] is how many times min + i is kept.
+    private int cutoff;             // The index of the biggest number that is kept, -1 while empty.
+
+    public int k;                   // The maximum size.
+    public int currSize;            // The current size.
+
+    private StringBuilder buffer;   // The buffer of printkMin(), kept for the next print.
+
+    /**
+     * Constructor which sets k and the range of the numbers.
+     *
+     * @param: k, the maximum size.
+     * @param: min, the smallest number that will be inserted.
+     * @param: max, the largest number that will be inserted.
+     */
+    public CountingTopK(int k, int min, int max)
+    {
+        this.k = k;
+        this.min = min;
+        this.max = max;
+        counts = new int[max - min + 1];
+        cutoff = -1;
+        currSize = 0;
+    }
+
+    /**
+     * The function inserts a number.
+     * Once the structure is full, a number which is not smaller than the cutoff is rejected with a single compare,
+     * and an accepted number pushes one copy of the cutoff out.
+     *
+     * @param: key, the number, it must be in the range [min, max].
+     */
+    public void Insert(int key)
+    {
+        if (key < min || key > max)
+            throw new IllegalArgumentException("The key " + key + " is out of the range [" + min + ", " + max + "]");
+
+        int i = key - min;
+
+        // If the structure is full (current size = k).
+        if (currSize == k)
+        {
+            // If the key is not smaller than the cutoff, we don't insert it.
+            if (i >= cutoff)
+                return;
+
+            counts[i]++;
+
+            // One copy of the cutoff leaves, and if it was the last one, move the cutoff down to the next number that is kept.
+            if (--counts[cutoff] == 0)
+            {
+                while (counts[cutoff] == 0)
+                    cutoff--;
+            }
+        }
+
+        // If the structure is not full yet, just count the key.
+        else
+        {
+            counts[i]++;
+            currSize++;
+
+            if (i > cutoff)
+                cutoff = i;
+        }
+    }
+
+    /**
+     * @return: Returns the current size.
+     */
+    public int size()
+    {
+        return currSize;
+    }
+
+    /**
+     * The function empties the structure. Only the counts up to the cutoff can be above 0, so only they are cleared.
+     */
+    public void clear()
+    {
+        Arrays.fill(counts, 0, cutoff + 1, 0);
+        cutoff = -1;
+        currSize = 0;
+    }
+
+    /**
+     * @return: Returns the cutoff once the structure is full, Long.MAX_VALUE before, and Long.MIN_VALUE if k is 0.
+     */
+    public long threshold()
+    {
+        // With k = 0 there is no cutoff, and min - 1 would let the numbers below the range pass.
+        if (k == 0)
+            return Long.MIN_VALUE;
+
+        return currSize < k ? Long.MAX_VALUE : (long) min + cutoff;
+    }
+
+    /**
+     * The function checks that all the numbers are in the range [min, max], so a number out of the range throws
+     * like in Insert, even if the threshold would skip it.
+     *
+     * @param: array, the numbers.
+     * @param: from, the index of the first number.
+     * @param: to, the index after the last number.
+     */
+    public void checkKeys(int [] array, int from, int to)
+    {
+        int low = Integer.MAX_VALUE;
+        int high = Integer.MIN_VALUE;
+
+        // Find the smallest and the largest number first, that loop has no branch on the numbers.
+        for (int i = from; i < to; i++)
+        {
+            low = Math.min(low, array[i]);
+            high = Math.max(high, array[i]);
+        }
+
+        if (low >= min && high <= max)
+            return;
+
+        for (int i = from; i < to; i++)
+        {
+            if (array[i] < min || array[i] > max)
+                throw new IllegalArgumentException("The key " + array[i] + " is out of the range [" + min + ", " + max + "]");
+        }
+    }
+
+    /**
+     * The function copies the kept numbers into dest in sorted order.
+     *
+     * @param: dest, the array to fill, only its first dest.length numbers are copied if there are more.
+     * @return: Returns the number of numbers copied.
+     */
+    public int snapshot(int [] dest)
+    {
+        int copied = 0;
+
+        for (int i = 0; i <= cutoff && copied < dest.length; i++)
+        {
+            for (int j = counts[i]; j > 0 && copied < dest.length; j--)
+                dest[copied++] = min + i;
+        }
+
+        return copied;
+    }
+
+    /**
+     * @return: Returns a new array with the kept numbers in sorted order.
+     */
+    public int [] toSortedArray()
+    {
+        int [] keys = new int [currSize];
+        snapshot(keys);
+        return keys;
+    }
+
+    /**
+     * The function prints the kept numbers with one write to System.out.
+     */
+    public void printkMin()
+    {
+        printkMin(currSize);
+    }
+
+    /**
+     * The function prints only the smallest kept numbers with one write to System.out.
+     *
+     * @param: count, the number of numbers to print.
+     */
+    public void printkMin(int count)
+    {
+        if (buffer == null)
+            buffer = new StringBuilder();
+
+        buffer.setLength(0);
+        printkMin(count, buffer);
+        System.out.print(buffer);
+    }
+
+    /**
+     * The function writes the smallest kept numbers, sorted.
+     *
+     * @param: count, the number of numbers to write.
+     * @param: out, where the numbers are written.
+     */
+    public void printkMin(int count, StringBuilder out)
+    {
+        for (int i = 0, written = 0; i <= cutoff && written < count; i++)
+        {
+            for (int j = counts[i]; j > 0 && written < count; j--, written++)
+                out.append(min + i).append(' ');
+        }
+    }
+}
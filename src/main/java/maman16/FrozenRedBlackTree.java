@@ -0,0 +1,198 @@
+package maman16;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Class FrozenRedBlackTree
+ * An immutable copy of the keys of a RedBlackTree, made by RedBlackTree.freeze(), for the times the keys are only read.
+ * The keys are kept twice, in two arrays instead of nodes:
+ * - In Eytzinger order (the order of a breadth first walk of a full binary tree): the root at 1 and the children of i
+ *   at 2i and 2i+1. A search goes down the array with a compare and a shift per level and no branch on the result,
+ *   and the first levels, which every search reads, sit next to each other in memory.
+ * - Sorted, for select, floor, ceiling and the range scans, which read neighbour keys one after the other.
+ * Freeze again to see keys that were inserted into the tree later.
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+public class FrozenRedBlackTree<T extends Comparable<T>> implements Iterable<T>
+{
+    private final T [] sorted;          // The keys, sorted.
+    private final T [] eytzinger;       // The keys in Eytzinger order, from index 1.
+    private final int [] rankOf;        // The index in sorted of the key at every index of eytzinger.
+    private final int size;             // The count of keys.
+
+    /**
+     * Constructor which builds the Eytzinger array from the sorted keys.
+     *
+     * @param: sorted, the keys, sorted, the array is kept and must not change.
+     */
+    FrozenRedBlackTree(T [] sorted)
+    {
+        this.sorted = sorted;
+        this.size = sorted.length;
+        this.eytzinger = Arrays.copyOf(sorted, size + 1);
+        this.rankOf = new int [size + 1];
+
+        build(1, 0);
+    }
+
+    /**
+     * The function fills the subtree of i in Eytzinger order with an in-order walk, so it gets the keys in sorted order.
+     *
+     * @param: i, the index of the subtree in eytzinger.
+     * @param: next, the index in sorted of the next key.
+     * @return: Returns the index in sorted after the keys of the subtree.
+     */
+    private int build(int i, int next)
+    {
+        if (i > size)
+            return next;
+
+        next = build(2 * i, next);
+        eytzinger[i] = sorted[next];
+        rankOf[i] = next;
+        return build(2 * i + 1, next + 1);
+    }
+
+    /**
+     * The search goes down eytzinger, to the right child when the key there is smaller than key (or equal, when
+     * orEqual is true), and to the left one otherwise. At the bottom, the last turn to the left is where the search
+     * ended, and the ones after it are turns to the right, so the trailing ones of i are shifted out.
+     *
+     * @param: key, the key to compare with.
+     * @param: orEqual, true to count the keys equal to key too.
+     * @return: Returns the number of keys that are smaller than key (or equal, when orEqual is true).
+     */
+    private int count(T key, boolean orEqual)
+    {
+        int bound = orEqual ? 0 : 1;    // The key at i goes to the left if compareTo(key, eytzinger[i]) < bound.
+        int i = 1;
+
+        while (i <= size)
+            i = 2 * i + (key.compareTo(eytzinger[i]) >= bound ? 1 : 0);
+
+        i >>>= Integer.numberOfTrailingZeros(~i) + 1;
+
+        // i = 0 when the search never went left, so all the keys are counted.
+        return i == 0 ? size : rankOf[i];
+    }
+
+    /**
+     * @return: Returns the count of keys.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @param: key, the key to compare with.
+     * @return: Returns the number of keys that are smaller than key, the same as RedBlackTree.countLessThan.
+     */
+    public int countLessThan(T key)
+    {
+        return count(key, false);
+    }
+
+    /**
+     * @param: key, the key we want to find.
+     * @return: Returns true if key is one of the keys.
+     */
+    public boolean contains(T key)
+    {
+        return rank(key) > 0;
+    }
+
+    /**
+     * @param: key, the key we want to find.
+     * @return: Returns the position of key in the sorted order (1 for the minimum), or -1 if key is not one of the keys,
+     *          the same as RedBlackTree.rank.
+     */
+    public int rank(T key)
+    {
+        int count = count(key, false);
+
+        if (count < size && key.compareTo(sorted[count]) == 0)
+            return count + 1;
+
+        return -1;
+    }
+
+    /**
+     * @param: i, the rank of the wanted key, 1 for the minimum.
+     * @return: Returns the i'th smallest key, or null if i is not between 1 and the size.
+     */
+    public T select(int i)
+    {
+        if (i < 1 || i > size)
+            return null;
+
+        return sorted[i - 1];
+    }
+
+    /**
+     * @param: key, the key to compare with.
+     * @return: Returns the largest key which is <= key, or null if there is none.
+     */
+    public T floor(T key)
+    {
+        int count = count(key, true);
+        return count == 0 ? null : sorted[count - 1];
+    }
+
+    /**
+     * @param: key, the key to compare with.
+     * @return: Returns the smallest key which is >= key, or null if there is none.
+     */
+    public T ceiling(T key)
+    {
+        int count = count(key, false);
+        return count == size ? null : sorted[count];
+    }
+
+    /**
+     * @param: lo, the smallest key of the range, null for no lower bound.
+     * @param: hi, the keys of the range are smaller than hi, null for no upper bound.
+     * @return: Returns the keys in [lo, hi), sorted, as a list that reads the sorted array.
+     */
+    public List<T> range(T lo, T hi)
+    {
+        int from = lo == null ? 0 : count(lo, false);
+        int to = hi == null ? size : count(hi, false);
+
+        return Collections.unmodifiableList(Arrays.asList(sorted).subList(from, Math.max(from, to)));
+    }
+
+    /**
+     * @return: Returns an iterator over the keys, sorted.
+     */
+    public Iterator<T> iterator()
+    {
+        return Spliterators.iterator(spliterator());
+    }
+
+    /**
+     * @return: Returns a spliterator over the keys, sorted, it splits the sorted array in halves.
+     */
+    public Spliterator<T> spliterator()
+    {
+        return Spliterators.spliterator(sorted, Spliterator.ORDERED | Spliterator.SORTED | Spliterator.NONNULL
+                                                | Spliterator.IMMUTABLE);
+    }
+
+    /**
+     * @return: Returns a stream of the keys, sorted.
+     */
+    public Stream<T> stream()
+    {
+        return StreamSupport.stream(spliterator(), false);
+    }
+}
@@ -0,0 +1,127 @@
+package maman16;
+
+import java.util.Arrays;
+
+/**
+ * Class HeapTopK
+ * This class keeps the smallest k numbers in a binary max-heap of size k, based on the heap algorithms in the course book.
+ * The root of the heap is the biggest kept number, so once the heap is full a number is rejected with a single compare,
+ * and an accepted number replaces the root and is sifted down.
+ * The heap is not sorted, so a snapshot costs a sort of k numbers, it fits when check points are rare.
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+public class HeapTopK implements TopK
+{
+    private int[] heap;             // The heap, heap[0] is the biggest number, the children of i are 2i+1 and 2i+2.
+    private int[] sorted;           // The copy of the heap that snapshot() sorts, kept for the next snapshot.
+
+    public int k;                   // The maximum size of the heap.
+    public int currSize;            // The current size of the heap.
+
+    // Default Constructor.
+    public HeapTopK(int k)
+    {
+        this.k = k;
+        heap = new int[k];
+        sorted = new int[k];
+        currSize = 0;
+    }
+
+    /**
+     * The function inserts a number, based on Max-Heap-Insert.
+     *
+     * @param: key, the number.
+     */
+    public void Insert(int key)
+    {
+        // If the heap is not full yet, add the key at the end and move it up.
+        if (currSize < k)
+        {
+            int i = currSize++;
+
+            while (i > 0 && heap[(i - 1) >> 1] < key)
+            {
+                heap[i] = heap[(i - 1) >> 1];
+                i = (i - 1) >> 1;
+            }
+
+            heap[i] = key;
+        }
+
+        // Else, if the key is smaller than the maximum, it replaces the maximum.
+        else if (k > 0 && key < heap[0])
+            heapify(key);
+    }
+
+    /**
+     * The Algorithm is based on Max-Heapify in the course book.
+     * The function puts key in the root and moves it down until the heap is valid again.
+     *
+     * @param: key, the new key of the root.
+     */
+    private void heapify(int key)
+    {
+        int i = 0;
+        int child;
+
+        while ((child = 2 * i + 1) < currSize)
+        {
+            // Take the bigger child.
+            if (child + 1 < currSize && heap[child + 1] > heap[child])
+                child++;
+
+            if (heap[child] <= key)
+                break;
+
+            heap[i] = heap[child];
+            i = child;
+        }
+
+        heap[i] = key;
+    }
+
+    /**
+     * @return: Returns how many numbers are kept.
+     */
+    public int size()
+    {
+        return currSize;
+    }
+
+    /**
+     * The function empties the heap, and keeps its memory for the numbers that come next.
+     */
+    public void clear()
+    {
+        currSize = 0;
+    }
+
+    /**
+     * @return: Returns the root once the heap is full, Long.MAX_VALUE before.
+     */
+    public long threshold()
+    {
+        if (currSize < k)
+            return Long.MAX_VALUE;
+
+        return k == 0 ? Long.MIN_VALUE : heap[0];
+    }
+
+    /**
+     * The function copies the kept numbers into dest in sorted order.
+     *
+     * @param: dest, the array to fill.
+     * @return: Returns the number of numbers copied.
+     */
+    public int snapshot(int [] dest)
+    {
+        int count = Math.min(currSize, dest.length);
+
+        System.arraycopy(heap, 0, sorted, 0, currSize);
+        Arrays.sort(sorted, 0, currSize);
+        System.arraycopy(sorted, 0, dest, 0, count);
+        return count;
+    }
+}
@@ -0,0 +1,562 @@
+package maman16;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Class IntRedBlack Tree
+ * The int version of RedBlackTree, it holds the same algorithems from the book of the course.
+ * Instead of one object for each node, the nodes are indexes into parallel arrays which hold
+ * the key, the children, the parent and the color of every node (an ArrayNodeStore), and index 0 is the nil node.
+ * This way the keys are not boxed and the nodes take much less memory. The algorithms are in AbstractIntRedBlackTree.
+ * In the compressed mode a node also holds the count of a key, so a key that appears many times takes one node,
+ * and k is the total of the counts.
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+public class IntRedBlackTree extends AbstractIntRedBlackTree
+{
+    // GLOBAL VARIABLES.
+    private static final int MAGIC = 0x52425431;    // "RBT1", the first 4 bytes of a saved tree.
+    private static final int IO_BUFFER_SIZE = 1 << 16;  // The size of the buffer for save and restore, in bytes.
+
+    private int[] count;            // The count of the key of every node, null if the tree is not compressed.
+
+    // The changes since the last delta, see trackChanges().
+    private int[] entered;          // The keys that entered the tree, null while the changes are not tracked.
+    private int[] evicted;          // The keys that were evicted from the tree.
+    private int enteredCount;
+    private int evictedCount;
+    private boolean overflow;       // True if more keys changed than a full snapshot has, then the next delta is a full snapshot.
+
+    // Default Constructor.
+    public IntRedBlackTree(int k)
+    {
+        this(k, false);
+    }
+
+    /**
+     * Constructor which sets the maximum size of the tree and its mode.
+     *
+     * @param: k, the maximum size of the tree.
+     * @param: compress, true if every node should hold a key and its count, for inputs where keys repeat.
+     */
+    public IntRedBlackTree(int k, boolean compress)
+    {
+        super(k, new ArrayNodeStore(Math.min(k, INITIAL_CAPACITY) + 1));
+        count = compress ? new int[store.capacity()] : null;
+    }
+
+    /**
+     * @param: x, a node of the tree.
+     * @return: Returns how many times the key of x is in the tree, 1 if the tree is not compressed.
+     */
+    @Override
+    public int getCount(int x)
+    {
+        return count == null ? 1 : count[x];
+    }
+
+    /**
+     * The function grows the arrays of the nodes, and the counts with them.
+     *
+     * @param: capacity, the new number of nodes, counting nil.
+     */
+    @Override
+    void grow(int capacity)
+    {
+        store.grow(capacity);
+
+        if (count != null)
+            count = Arrays.copyOf(count, capacity);
+    }
+
+    /**
+     * The function moves the count of y into z, with the key that Remove moved.
+     *
+     * @param: z, the node that stays.
+     * @param: y, the node that leaves.
+     */
+    @Override
+    void copySatellite(int z, int y)
+    {
+        if (count != null)
+            count[z] = count[y];
+    }
+
+    /**
+     * A function that calls the actuall function.
+     * Once the tree is full, a key which is not smaller than the maximum is rejected with a single compare,
+     * and an accepted key reuses the node of the evicted maximum.
+     *
+     * @param: the key you want to insert to the tree.
+     */
+    @Override
+    public void Insert(int k)
+    {
+        if (count != null)
+        {
+            InsertCompressed(k);
+            return;
+        }
+
+        // Record the key if the tree keeps it, and the maximum it evicts if the tree is full.
+        if (entered != null)
+        {
+            if (currSize < this.k)
+                logChange(k);
+
+            else if (!isNil(max) && k < key(max))
+                logChange(key(max), k);
+        }
+
+        super.Insert(k);
+    }
+
+    /**
+     * The Insert of the compressed mode.
+     * If the key is already in the tree its count goes up, and the evicted maximum only loses one from its count,
+     * so a node is added or removed only when a key shows up for the first time or leaves for the last time.
+     *
+     * @param: the key you want to insert to the tree.
+     */
+    private void InsertCompressed(int k)
+    {
+        int z;
+
+        // If the tree is full (current size = k).
+        if (currSize == this.k)
+        {
+                // If the key is not smaller then the maximum, we don't insert it and end the program.
+                if (isNil(max) || k >= key(max))
+                    return;
+
+                if (entered != null)
+                    logChange(key(max), k);
+
+                // Else, one copy of the maximum leaves, and its node leaves with the last copy.
+                if (--count[max] == 0)
+                {
+                    z = max;
+                    max = TreePredecessor(z);
+                    Remove(z);
+                    release(z);
+                }
+        }
+
+        else
+        {
+            if (entered != null)
+                logChange(k);
+
+            currSize++;
+        }
+
+        z = Search(k);
+
+        // If the key is in the tree, count it again.
+        if (!isNil(z))
+            count[z]++;
+
+        // Else, insert a new node with count 1.
+        else
+        {
+            z = newNode(k);
+            count[z] = 1;
+            InsertNode(z);  // Call the actual Insert function.
+        }
+    }
+
+    /**
+     * The function starts to record the keys that enter the tree and the keys that are evicted from it in Insert,
+     * so printDelta can print only what changed instead of the whole tree. The first delta is from the tree as it is now.
+     * A rejected key is not recorded, so the cost is only on the keys the tree keeps.
+     */
+    public void trackChanges()
+    {
+        entered = new int [Math.min(k, INITIAL_CAPACITY)];
+        evicted = new int [Math.min(k, INITIAL_CAPACITY)];
+        enteredCount = 0;
+        evictedCount = 0;
+        overflow = false;
+    }
+
+    /**
+     * The function empties the tree. The keys that left are not in the logs, so the next delta is a full snapshot.
+     */
+    @Override
+    public void clear()
+    {
+        super.clear();
+
+        if (entered != null)
+        {
+            enteredCount = 0;
+            evictedCount = 0;
+            overflow = true;
+        }
+    }
+
+    /**
+     * The function records a key that entered a tree that was not full.
+     *
+     * @param: in, the key.
+     */
+    private void logChange(int in)
+    {
+        if (enteredCount == entered.length)
+        {
+            if (full(entered))
+                return;
+
+            entered = Arrays.copyOf(entered, Math.min(2 * entered.length, k));
+        }
+
+        entered[enteredCount++] = in;
+    }
+
+    /**
+     * The function records a key that entered a full tree, and the maximum it evicted.
+     *
+     * @param: out, the key of the evicted maximum.
+     * @param: in, the key.
+     */
+    private void logChange(int out, int in)
+    {
+        logChange(in);
+
+        if (evictedCount == evicted.length)
+        {
+            if (full(evicted))
+                return;
+
+            evicted = Arrays.copyOf(evicted, Math.min(2 * evicted.length, k));
+        }
+
+        evicted[evictedCount++] = out;
+    }
+
+    /**
+     * A log grows by doubling up to k keys, as long as a full snapshot, so when more keys change than that,
+     * the recording stops and the next delta is a full snapshot.
+     *
+     * @param: log, a log with no room left.
+     * @return: Returns true if the log has k keys, and sets overflow.
+     */
+    private boolean full(int [] log)
+    {
+        if (log.length < k)
+            return false;
+
+        overflow = true;
+        return true;
+    }
+
+    /**
+     * The function prints the delta since the last one with one write to System.out, see printDelta(StringBuilder).
+     */
+    public void printDelta()
+    {
+        if (text == null)
+            text = new StringBuilder();
+
+        text.setLength(0);
+        printDelta(text);
+        System.out.print(text);
+    }
+
+    /**
+     * The function writes the changes since the last delta (or since trackChanges) in one line, and starts a new delta.
+     * The logs are sorted, and a key that entered and was evicted again cancels out, so the line holds only the net
+     * change: "+key" for every key that is in the tree now and was not before, "-key" for every key that left.
+     * If the changes are not tracked, or more keys changed than the tree holds, the line is a full snapshot instead:
+     * "=" and then all the keys.
+     *
+     * @param: out, where the line is written.
+     */
+    public void printDelta(StringBuilder out)
+    {
+        int i = 0;
+        int j = 0;
+
+        if (overflow || entered == null)
+        {
+            out.append('=');
+
+            for (int x = TreeMinimum(root); !isNil(x); x = TreeSuccessor(x))
+            {
+                for (int c = getCount(x); c > 0; c--)
+                    out.append(' ').append(key(x));
+            }
+        }
+
+        else
+        {
+            Arrays.sort(entered, 0, enteredCount);
+            Arrays.sort(evicted, 0, evictedCount);
+
+            // Merge the two sorted logs, equal keys cancel each other.
+            while (i < enteredCount || j < evictedCount)
+            {
+                if (j == evictedCount || (i < enteredCount && entered[i] < evicted[j]))
+                    out.append('+').append(entered[i++]).append(' ');
+
+                else if (i == enteredCount || evicted[j] < entered[i])
+                    out.append('-').append(evicted[j++]).append(' ');
+
+                else
+                {
+                    i++;
+                    j++;
+                }
+            }
+        }
+
+        out.append('\n');
+
+        // Start the next delta with the same logs, they only grow.
+        enteredCount = 0;
+        evictedCount = 0;
+        overflow = false;
+    }
+
+    /**
+     * The function saves the tree into a file, see save(FileChannel).
+     *
+     * @param: file, the path of the file, it is created or replaced.
+     */
+    public void save(Path file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            save(channel);
+        }
+    }
+
+    /**
+     * The function writes the tree to a channel: the header (magic, k, currSize, compressed or not, the count of nodes)
+     * and then the keys of the nodes in sorted order, and their counts if the tree is compressed, all big-endian ints.
+     *
+     * @param: channel, the channel.
+     */
+    public void save(FileChannel channel) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+        int nodeCount = 0;
+
+        for (int x = TreeMinimum(root); !isNil(x); x = TreeSuccessor(x))
+            nodeCount++;
+
+        buffer.putInt(MAGIC).putInt(k).putInt(currSize).putInt(count != null ? 1 : 0).putInt(nodeCount);
+
+        for (int x = TreeMinimum(root); !isNil(x); x = TreeSuccessor(x))
+            write(channel, buffer, key(x));
+
+        if (count != null)
+        {
+            for (int x = TreeMinimum(root); !isNil(x); x = TreeSuccessor(x))
+                write(channel, buffer, count[x]);
+        }
+
+        buffer.flip();
+
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+
+    /**
+     * The function puts an int in the buffer, and writes the buffer to the channel when it is full.
+     */
+    private static void write(FileChannel channel, ByteBuffer buffer, int value) throws IOException
+    {
+        if (buffer.remaining() < 4)
+        {
+            buffer.flip();
+
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+
+            buffer.clear();
+        }
+
+        buffer.putInt(value);
+    }
+
+    /**
+     * The function reads a tree that was saved with save(Path).
+     *
+     * @param: file, the path of the file.
+     * @return: Returns the tree.
+     */
+    public static IntRedBlackTree restore(Path file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            return restore(channel);
+        }
+    }
+
+    /**
+     * The function reads a tree that was written with save(FileChannel).
+     * The keys are sorted, so the tree is built from them directly in O(n), without Insert and InsertFixup.
+     * Nothing in the file is trusted: the header must describe a bounded tree (0 <= nodes <= size <= k) that fits in
+     * the file, the keys must be sorted (without repeats in the compressed mode) and the counts must add up to the size.
+     *
+     * @param: channel, the channel.
+     * @return: Returns the tree.
+     */
+    public static IntRedBlackTree restore(FileChannel channel) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_SIZE);
+        buffer.flip();
+
+        if (read(channel, buffer) != MAGIC)
+            throw new IOException("Not a saved IntRedBlackTree");
+
+        int k = read(channel, buffer);
+        int currSize = read(channel, buffer);
+        int mode = read(channel, buffer);
+        int nodeCount = read(channel, buffer);
+        boolean compress = mode == 1;
+        long total = 0;     // The sum of the counts.
+
+        if (mode != 0 && mode != 1)
+            throw corrupt("the mode is " + mode);
+
+        if (nodeCount < 0 || nodeCount > currSize || currSize > k)
+            throw corrupt("nodes = " + nodeCount + ", size = " + currSize + ", k = " + k);
+
+        if (!compress && nodeCount != currSize)
+            throw corrupt("nodes = " + nodeCount + " but size = " + currSize);
+
+        // Check that the keys (and counts) are in the file before the arrays are made.
+        if ((compress ? 8L : 4L) * nodeCount > channel.size() - channel.position() + buffer.remaining())
+            throw corrupt("the file is too short for " + nodeCount + " nodes");
+
+        IntRedBlackTree rbt = new IntRedBlackTree(k, compress);
+        int [] keys = new int [nodeCount];
+        int [] counts = null;
+
+        for (int i = 0; i < nodeCount; i++)
+        {
+            keys[i] = read(channel, buffer);
+
+            // Equal keys are separate nodes, except in the compressed mode.
+            if (i > 0 && (keys[i] < keys[i - 1] || (compress && keys[i] == keys[i - 1])))
+                throw corrupt("the keys are not sorted at node " + i);
+        }
+
+        if (compress)
+        {
+            counts = new int [nodeCount];
+
+            for (int i = 0; i < nodeCount; i++)
+            {
+                counts[i] = read(channel, buffer);
+
+                if (counts[i] < 1)
+                    throw corrupt("the count of node " + i + " is " + counts[i]);
+
+                total += counts[i];
+            }
+
+            if (total != currSize)
+                throw corrupt("the counts add up to " + total + " but size = " + currSize);
+        }
+
+        rbt.build(keys, counts);
+        rbt.currSize = currSize;
+        return rbt;
+    }
+
+    /**
+     * @param: why, what is wrong with the saved tree.
+     * @return: Returns the error for a saved tree that cannot be restored.
+     */
+    private static IOException corrupt(String why)
+    {
+        return new IOException("Corrupt saved IntRedBlackTree: " + why);
+    }
+
+    /**
+     * The function takes an int from the buffer, and reads more from the channel into the buffer when it is empty.
+     */
+    private static int read(FileChannel channel, ByteBuffer buffer) throws IOException
+    {
+        while (buffer.remaining() < 4)
+        {
+            buffer.compact();
+
+            if (channel.read(buffer) == -1)
+                throw new IOException("The saved IntRedBlackTree ends too soon");
+
+            buffer.flip();
+        }
+
+        return buffer.getInt();
+    }
+
+    /**
+     * The function replaces the tree with a tree built from sorted keys in O(n).
+     * Node i + 1 gets keys[i], so the nodes are stored in sorted order. The middle key of every range is the root
+     * of that range, so all the levels are full except maybe the last one, and the nodes of the last level are
+     * colored red when it is not full, which keeps the same count of black nodes on every path.
+     *
+     * @param: keys, the keys, sorted.
+     * @param: counts, the count of every key in the compressed mode, null otherwise.
+     */
+    private void build(int [] keys, int [] counts)
+    {
+        int n = keys.length;
+        int capacity = Math.max(n, Math.min(k, INITIAL_CAPACITY)) + 1;
+        int lastLevel = 31 - Integer.numberOfLeadingZeros(Math.max(n, 1));   // The depth of the last level.
+        boolean full = ((n + 1) & n) == 0;                                     // True if n + 1 is a power of 2.
+
+        store = new ArrayNodeStore(capacity);
+
+        if (counts != null)
+        {
+            count = new int[capacity];
+            System.arraycopy(counts, 0, count, 1, n);
+        }
+
+        for (int i = 0; i < n; i++)
+            setKey(i + 1, keys[i]);
+
+        nodes = n;
+        free = NIL;
+        root = build(0, n - 1, NIL, 0, full ? -1 : lastLevel);
+        max = n == 0 ? NIL : n;
+    }
+
+    /**
+     * The function builds the subtree of the keys in [lo, hi].
+     *
+     * @param: lo, the first index in the keys.
+     * @param: hi, the last index in the keys.
+     * @param: p, the parent of the subtree.
+     * @param: depth, the depth of the root of the subtree.
+     * @param: redLevel, the depth whose nodes are red, -1 for none.
+     * @return: Returns the root of the subtree.
+     */
+    private int build(int lo, int hi, int p, int depth, int redLevel)
+    {
+        if (lo > hi)
+            return NIL;
+
+        int middle = (lo + hi) >>> 1;
+        int x = middle + 1;
+
+        setParent(x, p);
+        setColor(x, (depth == redLevel) ? RED : BLACK);
+        setLeft(x, build(lo, middle - 1, x, depth + 1, redLevel));
+        setRight(x, build(middle + 1, hi, x, depth + 1, redLevel));
+        return x;
+    }
+}
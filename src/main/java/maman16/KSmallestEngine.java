@@ -0,0 +1,138 @@
+package maman16;
+
+import java.util.Arrays;
+
+/**
+ * Class KSmallestEngine
+ * This class finds the smallest k numbers for a few k values together, in one pass over the input.
+ * It keeps one bounded structure in the size of the largest k. The structure gives its numbers sorted, so the smallest
+ * k numbers for any smaller k are just the first k numbers of it.
+ * When the range of the numbers is known and small, a CountingTopK is used instead of the tree,
+ * and any other TopK structure can be given to the engine instead.
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+public class KSmallestEngine
+{
+    private int[] ks;               // The k values, sorted.
+    private TopK topK;              // The structure that holds the smallest numbers for the largest k.
+    private int [] keys;            // The numbers of the structure at the last check point.
+    private StringBuilder buffer;   // The buffer of printkMin(), kept for the next print.
+    private ThresholdPrefilter prefilter;   // Skips the numbers the structure would reject, for InsertAll.
+
+    /**
+     * Constructor which sets the k values of the engine.
+     *
+     * @param: ks, the k values we want to report.
+     */
+    public KSmallestEngine(int [] ks)
+    {
+        this(ks, false);
+    }
+
+    /**
+     * Constructor which sets the k values of the engine and the mode of its tree.
+     *
+     * @param: ks, the k values we want to report.
+     * @param: compress, true if the tree should keep one node with a count for each key, for inputs where keys repeat.
+     */
+    public KSmallestEngine(int [] ks, boolean compress)
+    {
+        this(ks, (TopK) null);
+        topK = new IntRedBlackTree(keys.length, compress);
+    }
+
+    /**
+     * Constructor which sets the k values of the engine and the range of the numbers.
+     * If the range is small enough the engine counts the numbers instead of keeping a tree.
+     *
+     * @param: ks, the k values we want to report.
+     * @param: min, the smallest number that will be inserted.
+     * @param: max, the largest number that will be inserted.
+     */
+    public KSmallestEngine(int [] ks, int min, int max)
+    {
+        this(ks, (TopK) null);
+        topK = TopKSelector.select(keys.length, Long.MAX_VALUE, true, min, max);
+    }
+
+    /**
+     * Constructor which sets the k values of the engine and the structure it uses.
+     *
+     * @param: ks, the k values we want to report.
+     * @param: topK, an empty structure for the largest k, or null to set it later.
+     */
+    public KSmallestEngine(int [] ks, TopK topK)
+    {
+        this.ks = sort(ks);
+        this.topK = topK;
+        keys = new int [this.ks.length == 0 ? 0 : this.ks[this.ks.length - 1]];
+        buffer = new StringBuilder();
+        prefilter = new ThresholdPrefilter();
+    }
+
+    /**
+     * @param: ks, the k values.
+     * @return: Returns a sorted copy of ks.
+     */
+    private static int [] sort(int [] ks)
+    {
+        int [] sorted = ks.clone();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * The function inserts the next number of the input to the engine.
+     *
+     * @param: key, the number.
+     */
+    public void Insert(int key)
+    {
+        topK.Insert(key);
+    }
+
+    /**
+     * The function inserts the numbers array[from .. to-1] to the engine, with the same result as calling Insert for each.
+     * The numbers are compared with the threshold of the structure in chunks first, so the ones it would reject cost
+     * no call (see ThresholdPrefilter).
+     *
+     * @param: array, the numbers.
+     * @param: from, the index of the first number.
+     * @param: to, the index after the last number.
+     */
+    public void InsertAll(int [] array, int from, int to)
+    {
+        prefilter.InsertAll(topK, array, from, to);
+    }
+
+    /**
+     * @return: Returns the structure of the engine.
+     */
+    public TopK getTopK()
+    {
+        return topK;
+    }
+
+    /**
+     * The function prints the smallest k numbers, sorted, in one line for every k.
+     * The structure is copied once, and all the lines are written into one buffer and printed together.
+     */
+    public void printkMin()
+    {
+        int count = topK.snapshot(keys);
+
+        buffer.setLength(0);
+
+        for (int k : ks)
+        {
+            for (int i = 0; i < k && i < count; i++)
+                buffer.append(keys[i]).append(' ');
+
+            buffer.append('\n');
+        }
+
+        System.out.print(buffer);
+    }
+}
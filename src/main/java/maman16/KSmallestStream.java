@@ -0,0 +1,286 @@
+package maman16;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Class KSmallestStream
+ * This class is the streaming version of Main.kSmallest, the numbers are read from a channel, a file or an input stream
+ * in big buffers and fed to a KSmallestEngine one by one, so the memory does not depend on the size of the input.
+ * The numbers are either binary (4 bytes each, big-endian) or text (decimal numbers separated by anything else).
+ * The check points are set by the count of numbers read, by the time that passed, or both.
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+public class KSmallestStream
+{
+    // GLOBAL VARIABLES.
+    private static final int BUFFER_SIZE = 1 << 16;         // The size of the read buffer in bytes.
+    private static final int MAP_SIZE = 1 << 30;            // The size of one mapped region of a file.
+    private static final int CHUNK_SIZE = 1 << 12;          // The most binary numbers given to the engine together.
+
+    private KSmallestEngine engine;     // The engine that holds the smallest numbers.
+    private boolean binary;             // True for binary numbers, false for text.
+    private long everyCount;            // Print after every this many numbers, 0 for never.
+    private long everyMillis;           // Print after every this many milliseconds, 0 for never.
+
+    private long count;                 // The count of numbers read so far.
+    private long nextCount;             // The count of the next count check point.
+    private long nextTime;              // The time of the next time check point, in nanoseconds.
+    private int [] chunk;               // The binary numbers that are given to the engine together.
+    private int clockMask;              // The clock is read when (count & clockMask) == 0, see checkClockEvery().
+    private int pending;                // The bytes of a binary number that is not whole yet.
+
+    // The state of the text number that is being read, it can be split between two buffers.
+    private long value;                 // A long, so a number out of the int range is found and not wrapped around.
+    private boolean negative;
+    private boolean inNumber;
+    private long start;                 // The offset of the first digit of the number in the input.
+    private long offset;                // The count of text bytes read before the current buffer.
+
+    /**
+     * Constructor which sets the k values, the format of the input and the check points.
+     *
+     * @param: ks, the k values we want to report.
+     * @param: binary, true if the input is binary big-endian ints, false if it is text.
+     * @param: everyCount, print the smallest numbers after every this many numbers, 0 for never.
+     * @param: everyMillis, print the smallest numbers after every this many milliseconds, 0 for never.
+     */
+    public KSmallestStream(int [] ks, boolean binary, long everyCount, long everyMillis)
+    {
+        this.engine = new KSmallestEngine(ks);
+        this.binary = binary;
+        this.everyCount = everyCount;
+        this.everyMillis = everyMillis;
+        count = 0;
+        nextCount = everyCount > 0 ? everyCount : Long.MAX_VALUE;
+        nextTime = everyMillis > 0 ? System.nanoTime() + everyMillis * 1000000L : Long.MAX_VALUE;
+    }
+
+    /**
+     * By default the clock is read after every text number, so a slow input gets its time check points on time.
+     * For a fast input it can be read less often, the time check points are then late by up to this many numbers.
+     * Binary numbers are fed in chunks that are already in memory, and the clock is read after every chunk.
+     *
+     * @param: numbers, read the clock once every this many text numbers, a power of 2.
+     */
+    public void checkClockEvery(int numbers)
+    {
+        if (numbers <= 0 || Integer.bitCount(numbers) != 1)
+            throw new IllegalArgumentException("numbers must be a power of 2");
+
+        clockMask = numbers - 1;
+    }
+
+    /**
+     * @return: Returns the engine which holds the smallest numbers read so far.
+     */
+    public KSmallestEngine getEngine()
+    {
+        return engine;
+    }
+
+    /**
+     * @return: Returns the count of numbers read so far.
+     */
+    public long getCount()
+    {
+        return count;
+    }
+
+    /**
+     * The function reads all the numbers from an input stream.
+     *
+     * @param: in, the input stream.
+     */
+    public void read(InputStream in) throws IOException
+    {
+        read(Channels.newChannel(in));
+    }
+
+    /**
+     * The function reads all the numbers from a channel (for example a FileChannel) into one direct buffer that is used again and again.
+     *
+     * @param: channel, the channel.
+     */
+    public void read(ReadableByteChannel channel) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.BIG_ENDIAN);
+
+        // Fill the buffer, feed the whole numbers in it, and keep the part of a number that is left for the next read.
+        while (channel.read(buffer) != -1)
+        {
+            buffer.flip();
+            feed(buffer);
+            buffer.compact();
+        }
+
+        end();
+    }
+
+    /**
+     * The function maps the file to memory, region after region, and reads all the numbers in it.
+     *
+     * @param: file, the path of the file.
+     */
+    public void readMapped(Path file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            long size = channel.size();
+
+            // MAP_SIZE is a multiple of 4, so a binary number is never split between two regions.
+            for (long position = 0; position < size; position += MAP_SIZE)
+            {
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_SIZE, size - position));
+                region.order(ByteOrder.BIG_ENDIAN);
+                feed(region);
+            }
+        }
+
+        end();
+    }
+
+    /**
+     * The function feeds all the whole numbers in the buffer to the engine.
+     *
+     * @param: buffer, the buffer, ready for reading.
+     */
+    private void feed(ByteBuffer buffer) throws IOException
+    {
+        long base = offset - buffer.position();    // The offset in the input of the start of the buffer.
+
+        if (binary)
+        {
+            feedBinary(buffer);
+            return;
+        }
+
+        // Text: read the digits of a number until a byte which is not part of it.
+        while (buffer.hasRemaining())
+        {
+            byte b = buffer.get();
+
+            if (b >= '0' && b <= '9')
+            {
+                if (!inNumber)
+                    start = base + buffer.position() - 1;
+
+                value = value * 10 + (b - '0');
+                inNumber = true;
+
+                // Stop as soon as the number is too big even for -2147483648, before value can overflow too.
+                if (value > Integer.MAX_VALUE + 1L)
+                    throw outOfRange();
+            }
+
+            else
+            {
+                end();
+                negative = (b == '-');
+            }
+        }
+
+        offset = base + buffer.position();
+    }
+
+    /**
+     * @return: Returns the error for a text number out of the int range.
+     */
+    private IOException outOfRange()
+    {
+        return new IOException("The number at byte " + start + " is out of the int range");
+    }
+
+    /**
+     * The function feeds the binary numbers in chunks to engine.InsertAll, so the engine can skip the numbers it
+     * would reject without a call for each. A chunk ends at the next count check point, so the count check points are
+     * the same as with one Insert for every number, and the clock is read after every chunk.
+     *
+     * @param: buffer, the buffer, ready for reading.
+     */
+    private void feedBinary(ByteBuffer buffer)
+    {
+        IntBuffer ints = buffer.asIntBuffer();
+
+        if (chunk == null)
+            chunk = new int [CHUNK_SIZE];
+
+        while (ints.hasRemaining())
+        {
+            int n = (int) Math.min(Math.min(ints.remaining(), chunk.length), nextCount - count);
+
+            ints.get(chunk, 0, n);
+            engine.InsertAll(chunk, 0, n);
+            count += n;
+            checkPoint(true);
+        }
+
+        buffer.position(buffer.position() + 4 * ints.position());
+        pending = buffer.remaining();
+    }
+
+    /**
+     * The function ends the text number that is being read, if there is one, and inserts it.
+     * At the end of a binary input, it checks that no part of a number is left.
+     */
+    private void end() throws IOException
+    {
+        if (binary && pending > 0)
+            throw new IOException("The input ends with " + pending + " bytes, which are not a whole number");
+
+        if (inNumber)
+        {
+            if (!negative && value > Integer.MAX_VALUE)
+                throw outOfRange();
+
+            Insert((int) (negative ? -value : value));
+        }
+
+        value = 0;
+        negative = false;
+        inNumber = false;
+    }
+
+    /**
+     * The function inserts one number to the engine, and prints the smallest numbers if we got to a check point.
+     *
+     * @param: key, the number.
+     */
+    private void Insert(int key)
+    {
+        engine.Insert(key);
+        count++;
+        checkPoint((count & clockMask) == 0);
+    }
+
+    /**
+     * The function prints the smallest numbers if we got to a check point.
+     *
+     * @param: readClock, true to check the time check point too.
+     */
+    private void checkPoint(boolean readClock)
+    {
+        if (count == nextCount)
+        {
+            nextCount += everyCount;
+            engine.printkMin();
+        }
+
+        else if (readClock && everyMillis > 0 && System.nanoTime() >= nextTime)
+        {
+            nextTime = System.nanoTime() + everyMillis * 1000000L;
+            engine.printkMin();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package maman16;
+
+import java.util.SplittableRandom;
+
+/**
+ * This is the main class which contains the the function Online.
+ * The data is provided in the assignment.
+ * 
+ * @author: Ofir Sasson and Amit Reuveni.
+ * @version: 2017
+ */
+public class Main
+{
+    static final int MIN = 0;      // The smallest number in each array.
+    static final int MAX = 1023;   // The largest number in each array.    
+    static final int [] K = {10, 50, 100};  // The k values described in the assignment.
+
+    // The main program
+    public static void main(String arg[])
+    {  
+        // Set three arrays as described in the assignment.
+        int [] A = new int [200];
+        int [] B = new int [400];
+        int [] C = new int [800];
+
+        // Fill the arrays with random numbers
+        fillArray(A);
+        fillArray(B);
+        fillArray(C);
+          
+        // Find smallest k numbers with k configured as described in the assignment, all the k values in one pass.
+        // The numbers are in [MIN, MAX], so the engine can count them instead of keeping a tree.
+        kSmallest(A, K, MIN, MAX);
+        kSmallest(B, K, MIN, MAX);
+        kSmallest(C, K, MIN, MAX);
+    }   
+   
+    /**
+     * The funtion puts random values in an array, with a new seed every run.
+     * 
+     * @param: array, the array we want to fill.
+     */
+    public static void fillArray(int [] array)
+    {
+        fillArray(array, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * The funtion puts random values in the range [MIN, MAX] in an array, the same seed gives the same values.
+     * 
+     * @param: array, the array we want to fill.
+     * @param: seed, the seed.
+     */
+    public static void fillArray(int [] array, long seed)
+    {
+        new WorkloadGenerator(WorkloadGenerator.Distribution.UNIFORM, MIN, MAX, seed).fill(array);
+    }
+      
+    /**
+     * The funtion gets an array and a number k and prints the smallest k numbers in the array, sorted.
+     * 
+     * @param: array, filled with numbers.
+     * @param: k, number.
+     */
+    public static void kSmallest(int [] array, int k)
+    {
+        kSmallest(array, new int [] {k});
+    }
+
+    /**
+     * The funtion gets an array and a few k values, and prints the smallest k numbers in the array for each k, sorted.
+     * The array is scanned only once, and at every check point one line is printed for each k.
+     * 
+     * @param: array, filled with numbers.
+     * @param: ks, the k values.
+     */
+    public static void kSmallest(int [] array, int [] ks)
+    {
+        kSmallest(array, new KSmallestEngine(ks));
+    }
+
+    /**
+     * The same as kSmallest(array, ks), for an array whose numbers are all in the range [min, max].
+     * 
+     * @param: array, filled with numbers in the range [min, max].
+     * @param: ks, the k values.
+     * @param: min, the smallest number in the array.
+     * @param: max, the largest number in the array.
+     */
+    public static void kSmallest(int [] array, int [] ks, int min, int max)
+    {
+        kSmallest(array, new KSmallestEngine(ks, min, max));
+    }
+
+    /**
+     * The same as kSmallest(array, k), but at every check point only the change since the last one is printed:
+     * "+key" for a number that entered the smallest k, and "-key" for a number that left (see IntRedBlackTree.printDelta).
+     * The first check point prints the change from the empty tree, so the lines add up to the smallest k numbers.
+     * 
+     * @param: array, filled with numbers.
+     * @param: k, number.
+     */
+    public static void kSmallestDelta(int [] array, int k)
+    {
+        IntRedBlackTree rbt = new IntRedBlackTree(k);
+
+        rbt.trackChanges();
+        kSmallest(array, new KSmallestEngine(new int [] {k}, rbt), rbt::printDelta);
+    }
+
+    /**
+     * The funtion feeds the array to the engine and prints the smallest numbers at the check points.
+     * 
+     * @param: array, filled with numbers.
+     * @param: engine, the engine with the k values.
+     */
+    private static void kSmallest(int [] array, KSmallestEngine engine)
+    {
+        kSmallest(array, engine, engine::printkMin);
+    }
+
+    /**
+     * The funtion feeds the array to the engine and prints at the check points.
+     * 
+     * @param: array, filled with numbers.
+     * @param: engine, the engine with the k values.
+     * @param: print, prints the smallest numbers at a check point.
+     */
+    private static void kSmallest(int [] array, KSmallestEngine engine, Runnable print)
+    {
+        // Set three points as described in the assignment.
+        int n1 = (array.length) / 4;
+        int n2 = (array.length) / 2;
+        int n3 = (3 * array.length) / 4;
+   
+        int from = 0;
+
+        // Insert the numbers up to each check point in one call, so the engine can skip the numbers it would reject in chunks.
+        for (int point : new int [] {n1, n2, n3})
+        {
+            // A small array can have the same check point twice, and an empty array has none.
+            if (point < from || point >= array.length)
+                continue;
+
+            engine.InsertAll(array, from, point + 1);
+
+            // We got to a check point, print the smallest numbers for every k.
+            print.run();
+            from = point + 1;
+        }
+
+        // Insert the rest of the array.
+        engine.InsertAll(array, from, array.length);
+    }
+}
@@ -0,0 +1,47 @@
+package maman16;
+
+/**
+ * Interface NodeStore
+ * The slots that hold the nodes of an AbstractIntRedBlackTree. A node is the index of its slot, and slot 0 is the nil node.
+ * The tree runs the algorithms of the course book on top of these functions, so it does not care where the slots are:
+ * parallel arrays (ArrayNodeStore) or records in a ByteBuffer (BufferNodeStore).
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+interface NodeStore
+{
+    // The fields of node x.
+
+    int key(int x);
+
+    int left(int x);
+
+    int right(int x);
+
+    int parent(int x);
+
+    int color(int x);
+
+    void setKey(int x, int k);
+
+    void setLeft(int x, int y);
+
+    void setRight(int x, int y);
+
+    void setParent(int x, int y);
+
+    void setColor(int x, int c);
+
+    /**
+     * @return: Returns the number of slots, counting nil.
+     */
+    int capacity();
+
+    /**
+     * The function grows the store, the slots keep what they hold.
+     *
+     * @param: capacity, the new number of slots, bigger than capacity().
+     */
+    void grow(int capacity);
+}
@@ -0,0 +1,182 @@
+package maman16;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Class OffHeapRedBlackTree
+ * The off-heap version of IntRedBlackTree, it runs the same algorithms of AbstractIntRedBlackTree.
+ * The nodes are records of 16 bytes in one direct ByteBuffer, or in a file mapped to memory (a BufferNodeStore):
+ * the key, the left child, the right child, and the parent with the color in its lowest bit. A node is the index of
+ * its record, and record 0 is the nil node. Before the records there is a header with the state of the tree (the root, the maximum, the size and
+ * the free list of removed records), so a mapped file can be opened again as a tree without rebuilding it.
+ * The garbage collector sees only a few objects, whatever the size of the tree.
+ *
+ * The records are little-endian in a file, so a file made on one computer can be opened on another.
+ * One buffer holds at most 2GB, so k must be below MAX_K, about 134 million.
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+public class OffHeapRedBlackTree extends AbstractIntRedBlackTree
+{
+    // GLOBAL VARIABLES.
+    private static final int MAGIC = 0x52424F48;    // "RBOH", the first 4 bytes of a mapped tree.
+    private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    // The header, the offsets of its fields.
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_K = 4;
+    private static final int HEADER_SIZE = 8;
+    private static final int HEADER_ROOT = 12;
+    private static final int HEADER_MAX = 16;
+    private static final int HEADER_NODES = 20;
+    private static final int HEADER_FREE = 24;
+    private static final int HEADER_BYTES = 32;
+
+    private static final int NODE_BYTES = BufferNodeStore.NODE_BYTES;
+
+    public static final int MAX_K = (Integer.MAX_VALUE - HEADER_BYTES) / NODE_BYTES - 1;
+
+    /**
+     * Constructor of a tree in a direct buffer, which grows by doubling up to k + 1 records.
+     *
+     * @param: k, the maximum size of the tree, smaller than MAX_K.
+     */
+    public OffHeapRedBlackTree(int k)
+    {
+        this(k, ByteBuffer.allocateDirect(HEADER_BYTES + (Math.min(check(k), INITIAL_CAPACITY) + 1) * NODE_BYTES));
+        changed();
+    }
+
+    /**
+     * Constructor of a tree in the given buffer, with the header already in it or all zero.
+     *
+     * @param: k, the maximum size of the tree.
+     * @param: buffer, the buffer.
+     */
+    private OffHeapRedBlackTree(int k, ByteBuffer buffer)
+    {
+        super(k, new BufferNodeStore(buffer.order(ORDER), HEADER_BYTES));
+        buffer.putInt(HEADER_MAGIC, MAGIC);
+        buffer.putInt(HEADER_K, k);
+    }
+
+    /**
+     * @return: Returns the header and the records, a MappedByteBuffer if the tree is in a file.
+     */
+    private ByteBuffer buffer()
+    {
+        return ((BufferNodeStore) store).buffer();
+    }
+
+    /**
+     * @param: k, the maximum size of a tree.
+     * @return: Returns k, if it is between 0 and MAX_K.
+     */
+    private static int check(int k)
+    {
+        if (k < 0 || k > MAX_K)
+            throw new IllegalArgumentException("k must be between 0 and " + MAX_K);
+
+        return k;
+    }
+
+    /**
+     * The function maps a file as a tree. A new or empty file becomes an empty tree with room for k + 1 records,
+     * and a file with a tree in it is opened as it is, in O(1), with the keys it had.
+     * The file is mapped in full, but the records are written only when they are used.
+     *
+     * @param: file, the path of the file.
+     * @param: k, the maximum size of the tree, it must be the same k the file was made with.
+     * @return: Returns the tree of the file.
+     */
+    public static OffHeapRedBlackTree open(Path file, int k) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE))
+        {
+            long size = HEADER_BYTES + ((long) check(k) + 1) * NODE_BYTES;
+            boolean empty = channel.size() == 0;
+
+            if (!empty && channel.size() != size)
+                throw new IOException("The file is not a tree with k = " + k);
+
+            // The mapping stays valid after the channel is closed.
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            mapped.order(ORDER);
+
+            if (!empty && (mapped.getInt(HEADER_MAGIC) != MAGIC || mapped.getInt(HEADER_K) != k))
+                throw new IOException("The file is not a tree with k = " + k);
+
+            OffHeapRedBlackTree tree = new OffHeapRedBlackTree(k, mapped);
+            tree.readHeader();
+            return tree;
+        }
+    }
+
+    /**
+     * The function writes the changes of a mapped tree to its file, it does nothing for a tree in a direct buffer.
+     */
+    public void force()
+    {
+        if (buffer() instanceof MappedByteBuffer)
+            ((MappedByteBuffer) buffer()).force();
+    }
+
+    /**
+     * The function reads the state of the tree from the header.
+     */
+    private void readHeader()
+    {
+        ByteBuffer buffer = buffer();
+
+        currSize = buffer.getInt(HEADER_SIZE);
+        root = buffer.getInt(HEADER_ROOT);
+        max = buffer.getInt(HEADER_MAX);
+        nodes = buffer.getInt(HEADER_NODES);
+        free = buffer.getInt(HEADER_FREE);
+    }
+
+    /**
+     * The function writes the state of the tree to the header, after every change.
+     */
+    @Override
+    void changed()
+    {
+        ByteBuffer buffer = buffer();
+
+        buffer.putInt(HEADER_SIZE, currSize);
+        buffer.putInt(HEADER_ROOT, root);
+        buffer.putInt(HEADER_MAX, max);
+        buffer.putInt(HEADER_NODES, nodes);
+        buffer.putInt(HEADER_FREE, free);
+    }
+
+    /**
+     * The function deletes one copy of a key from the tree, and puts the record that is removed on the free list.
+     *
+     * @param: k, the key we want to delete.
+     * @return: Returns true if the key was in the tree, false otherwise.
+     */
+    public boolean delete(int k)
+    {
+        int z = Search(k);
+
+        if (isNil(z))
+            return false;
+
+        release(Remove(z));
+        currSize--;
+
+        // Remove may move the maximum key into z, so find the maximum again.
+        max = isNil(root) ? NIL : TreeMaximum(root);
+        changed();
+        return true;
+    }
+}
@@ -0,0 +1,162 @@
+package maman16;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class ParallelKSmallest
+ * This class finds the smallest k numbers of an array with all the cores of the computer.
+ * The array is split between tasks of a ForkJoinPool, every task builds its own bounded IntRedBlackTree,
+ * and the trees are merged two by two until one tree holds the smallest k numbers of the whole array.
+ * The tasks share the smallest maximum of a full tree: a full tree holds k numbers that are not bigger than it,
+ * so any number which is not smaller than it can be thrown away without touching a tree.
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+public class ParallelKSmallest
+{
+    // GLOBAL VARIABLES.
+    private static final int SPLIT_SIZE = 1 << 14;      // A part of the array smaller than this is not split again.
+    private static final int BOUND_CHECK_MASK = (1 << 10) - 1;  // Read the shared bound once every 1024 numbers.
+
+    /**
+     * The function finds the smallest k numbers of the array with the common ForkJoinPool.
+     *
+     * @param: array, filled with numbers.
+     * @param: k, number.
+     * @return: Returns the smallest k numbers in the array, sorted (or the whole array sorted if it has less than k numbers).
+     */
+    public static int [] kSmallest(int [] array, int k)
+    {
+        return kSmallest(array, k, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * The function finds the smallest k numbers of the array with the given pool.
+     *
+     * @param: array, filled with numbers.
+     * @param: k, number.
+     * @param: pool, the pool that runs the tasks.
+     * @return: Returns the smallest k numbers in the array, sorted (or the whole array sorted if it has less than k numbers).
+     */
+    public static int [] kSmallest(int [] array, int k, ForkJoinPool pool)
+    {
+        // The bound is a long so that it can be bigger than every int until the first tree is full.
+        AtomicLong bound = new AtomicLong(Long.MAX_VALUE);
+        IntRedBlackTree rbt = pool.invoke(new Task(array, 0, array.length, k, bound));
+
+        return rbt.toSortedArray();
+    }
+
+    /**
+     * The function moves the keys of the tree from into the tree into.
+     * The keys are moved from the smallest up, so once into is full and rejects a key it will reject all the rest.
+     *
+     * @param: into, the tree that keeps the result.
+     * @param: from, the tree whose keys are moved.
+     * @return: Returns into.
+     */
+    private static IntRedBlackTree merge(IntRedBlackTree into, IntRedBlackTree from)
+    {
+        for (int x = from.TreeMinimum(from.getRoot()); x != IntRedBlackTree.NIL; x = from.TreeSuccessor(x))
+        {
+            int key = from.getKey(x);
+
+            if (into.currSize == into.k && key >= into.getKey(into.getMax()))
+                break;
+
+            into.Insert(key);
+        }
+
+        return into;
+    }
+
+    /**
+     * The function lowers the shared bound to the maximum of the tree, if the tree is full and its maximum is smaller.
+     *
+     * @param: rbt, the tree.
+     * @param: bound, the shared bound.
+     * @return: Returns the shared bound after the update.
+     */
+    private static long lowerBound(IntRedBlackTree rbt, AtomicLong bound)
+    {
+        long current = bound.get();
+
+        if (rbt.currSize < rbt.k || rbt.k == 0)
+            return current;
+
+        long max = rbt.getKey(rbt.getMax());
+
+        // Another task may lower the bound at the same time, so try until one of us wins.
+        while (max < current && !bound.compareAndSet(current, max))
+            current = bound.get();
+
+        return Math.min(max, current);
+    }
+
+    /**
+     * Class Task
+     * A task finds the smallest k numbers in a part of the array, [from, to).
+     */
+    private static class Task extends RecursiveTask<IntRedBlackTree>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int [] array;
+        private final int from;
+        private final int to;
+        private final int k;
+        private final AtomicLong bound;
+
+        // Constructor.
+        Task(int [] array, int from, int to, int k, AtomicLong bound)
+        {
+            this.array = array;
+            this.from = from;
+            this.to = to;
+            this.k = k;
+            this.bound = bound;
+        }
+
+        @Override
+        protected IntRedBlackTree compute()
+        {
+            // If the part is big, split it in two, and merge the smaller tree into the bigger one.
+            if (to - from > SPLIT_SIZE)
+            {
+                int middle = (from + to) >>> 1;
+                Task left = new Task(array, from, middle, k, bound);
+                Task right = new Task(array, middle, to, k, bound);
+
+                left.fork();
+                IntRedBlackTree rightTree = right.compute();
+                IntRedBlackTree leftTree = left.join();
+
+                IntRedBlackTree result = leftTree.currSize >= rightTree.currSize ? merge(leftTree, rightTree) : merge(rightTree, leftTree);
+                lowerBound(result, bound);
+                return result;
+            }
+
+            IntRedBlackTree rbt = new IntRedBlackTree(k);
+            long limit = bound.get();
+
+            for (int i = from; i < to; i++)
+            {
+                // Throw away a number that can not be one of the smallest k.
+                if (array[i] >= limit)
+                    continue;
+
+                rbt.Insert(array[i]);
+
+                // Share our maximum and read the maximum of the others once in a while.
+                if ((i & BOUND_CHECK_MASK) == 0)
+                    limit = lowerBound(rbt, bound);
+            }
+
+            lowerBound(rbt, bound);
+            return rbt;
+        }
+    }
+}
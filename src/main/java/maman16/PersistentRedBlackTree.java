@@ -0,0 +1,320 @@
+package maman16;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class PersistentRedBlackTree
+ * A bounded tree of the smallest k keys whose nodes never change after they are made.
+ * Insert copies only the nodes on the path it changes (path copying) and shares the rest with the older versions,
+ * so a version of the tree is just its root, and taking one at a check point costs O(1).
+ * A version can be read, printed or sent by another thread while the writer keeps inserting into newer versions.
+ *
+ * Path copying does not work with parent pointers, since a copied node would need all its children copied too,
+ * so this tree is a left-leaning red-black tree (Sedgewick): the nodes hold no parent, and insert and delete of the
+ * maximum are recursive, fixing the colors on the way back up.
+ *
+ * Only one thread may call Insert, any thread may call snapshot() and read the versions.
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+public class PersistentRedBlackTree<T extends Comparable<T>>
+{
+    /**
+     * Class Node
+     * A node that never changes.
+     */
+    private static final class Node<T>
+    {
+        final T key;
+        final Node<T> left;
+        final Node<T> right;
+        final boolean red;
+        final int size;             // The number of nodes in the subtree of this node.
+
+        Node(T key, Node<T> left, Node<T> right, boolean red)
+        {
+            this.key = key;
+            this.left = left;
+            this.right = right;
+            this.red = red;
+            this.size = size(left) + size(right) + 1;
+        }
+    }
+
+    /**
+     * Class Version
+     * A version of the tree, it never changes.
+     */
+    public static final class Version<T>
+    {
+        private final Node<T> root;
+
+        private Version(Node<T> root)
+        {
+            this.root = root;
+        }
+
+        /**
+         * @return: Returns the count of keys in this version.
+         */
+        public int size()
+        {
+            return PersistentRedBlackTree.size(root);
+        }
+
+        /**
+         * @return: Returns the keys of this version, sorted.
+         */
+        public List<T> toList()
+        {
+            List<T> keys = new ArrayList<T>(size());
+            ArrayDeque<Node<T>> stack = new ArrayDeque<Node<T>>();
+            Node<T> x = root;
+
+            // In-order walk with a stack, since there are no parent pointers.
+            while (x != null || !stack.isEmpty())
+            {
+                while (x != null)
+                {
+                    stack.push(x);
+                    x = x.left;
+                }
+
+                x = stack.pop();
+                keys.add(x.key);
+                x = x.right;
+            }
+
+            return keys;
+        }
+
+        /**
+         * The function writes the keys of this version, sorted.
+         *
+         * @param: out, where the keys are written.
+         */
+        public void printkMin(StringBuilder out)
+        {
+            for (T key : toList())
+                out.append(key).append(' ');
+        }
+    }
+
+    private volatile Node<T> root;  // The newest version, volatile so a reader thread sees a whole version.
+
+    public final int k;             // The maximum size of the tree.
+
+    // Default Constructor.
+    public PersistentRedBlackTree(int k)
+    {
+        this.k = k;
+        root = null;
+    }
+
+    /**
+     * @param: x, a node or null.
+     * @return: Returns the size of the subtree of x, 0 for null.
+     */
+    private static int size(Node<?> x)
+    {
+        return x == null ? 0 : x.size;
+    }
+
+    /**
+     * @param: x, a node or null.
+     * @return: Returns true if x is red, null is black.
+     */
+    private static boolean isRed(Node<?> x)
+    {
+        return x != null && x.red;
+    }
+
+    /**
+     * @return: Returns the current size of the tree.
+     */
+    public int size()
+    {
+        return size(root);
+    }
+
+    /**
+     * The function takes the current version of the tree, in O(1).
+     *
+     * @return: Returns the current version, it does not change when more keys are inserted.
+     */
+    public Version<T> snapshot()
+    {
+        return new Version<T>(root);
+    }
+
+    /**
+     * The function inserts a key. Once the tree is full, a key which is not smaller than the maximum is rejected,
+     * and an accepted key deletes the maximum.
+     *
+     * @param: key, the key you want to insert to the tree.
+     */
+    public void Insert(T key)
+    {
+        Node<T> r = root;
+
+        if (size(r) == k)
+        {
+            // If the key is not smaller then the maximum, we don't insert it.
+            if (k == 0 || key.compareTo(maximum(r)) >= 0)
+                return;
+
+            r = deleteMax(r);
+        }
+
+        r = insert(r, key);
+        root = blacken(r);
+    }
+
+    /**
+     * @param: x, the root of a subtree, not null.
+     * @return: Returns the maximum key in the subtree of x.
+     */
+    private T maximum(Node<T> x)
+    {
+        while (x.right != null)
+            x = x.right;
+
+        return x.key;
+    }
+
+    /**
+     * @param: x, a node or null.
+     * @return: Returns x colored black, a copy if it was red.
+     */
+    private Node<T> blacken(Node<T> x)
+    {
+        return (x == null || !x.red) ? x : new Node<T>(x.key, x.left, x.right, false);
+    }
+
+    /**
+     * The function inserts the key into the subtree of x, equal keys go right.
+     *
+     * @param: x, the root of a subtree or null.
+     * @param: key, the key.
+     * @return: Returns the new root of the subtree.
+     */
+    private Node<T> insert(Node<T> x, T key)
+    {
+        if (x == null)
+            return new Node<T>(key, null, null, true);
+
+        if (key.compareTo(x.key) < 0)
+            x = new Node<T>(x.key, insert(x.left, key), x.right, x.red);
+
+        else
+            x = new Node<T>(x.key, x.left, insert(x.right, key), x.red);
+
+        return balance(x);
+    }
+
+    /**
+     * The function deletes the maximum from the subtree of x.
+     *
+     * @param: x, the root of a subtree, not null.
+     * @return: Returns the new root of the subtree.
+     */
+    private Node<T> deleteMax(Node<T> x)
+    {
+        // Make sure the root is red before going down, unless it has red children.
+        if (!isRed(x.left) && !isRed(x.right))
+            x = new Node<T>(x.key, x.left, x.right, true);
+
+        return blacken(deleteMaxRed(x));
+    }
+
+    /**
+     * The function deletes the maximum from the subtree of x, where x or one of its children is red.
+     *
+     * @param: x, the root of a subtree, not null.
+     * @return: Returns the new root of the subtree.
+     */
+    private Node<T> deleteMaxRed(Node<T> x)
+    {
+        // Lean the red link right, so the maximum is reached through red links.
+        if (isRed(x.left))
+            x = rotateRight(x);
+
+        if (x.right == null)
+            return null;
+
+        if (!isRed(x.right) && !isRed(x.right.left))
+            x = moveRedRight(x);
+
+        x = new Node<T>(x.key, x.left, deleteMaxRed(x.right), x.red);
+        return balance(x);
+    }
+
+    /**
+     * @param: x, a node whose left child is red.
+     * @return: Returns a copy of x rotated right.
+     */
+    private Node<T> rotateRight(Node<T> x)
+    {
+        Node<T> y = x.left;
+        return new Node<T>(y.key, y.left, new Node<T>(x.key, y.right, x.right, true), x.red);
+    }
+
+    /**
+     * @param: x, a node whose right child is red.
+     * @return: Returns a copy of x rotated left.
+     */
+    private Node<T> rotateLeft(Node<T> x)
+    {
+        Node<T> y = x.right;
+        return new Node<T>(y.key, new Node<T>(x.key, x.left, y.left, true), y.right, x.red);
+    }
+
+    /**
+     * @param: x, a node with two children.
+     * @return: Returns a copy of x and its children with all their colors flipped.
+     */
+    private Node<T> flipColors(Node<T> x)
+    {
+        return new Node<T>(x.key, new Node<T>(x.left.key, x.left.left, x.left.right, !x.left.red),
+                           new Node<T>(x.right.key, x.right.left, x.right.right, !x.right.red), !x.red);
+    }
+
+    /**
+     * The function makes x.right or one of its children red, when x is red and x.right and x.right.left are black.
+     *
+     * @param: x, a node.
+     * @return: Returns the new root of the subtree.
+     */
+    private Node<T> moveRedRight(Node<T> x)
+    {
+        x = flipColors(x);
+
+        if (isRed(x.left.left))
+            x = flipColors(rotateRight(x));
+
+        return x;
+    }
+
+    /**
+     * The function restores the left-leaning red-black properties at x on the way back up.
+     *
+     * @param: x, a node.
+     * @return: Returns the new root of the subtree.
+     */
+    private Node<T> balance(Node<T> x)
+    {
+        if (isRed(x.right) && !isRed(x.left))
+            x = rotateLeft(x);
+
+        if (isRed(x.left) && isRed(x.left.left))
+            x = rotateRight(x);
+
+        if (isRed(x.left) && isRed(x.right))
+            x = flipColors(x);
+
+        return x;
+    }
+}
@@ -0,0 +1,145 @@
+package maman16;
+
+import java.util.Arrays;
+
+/**
+ * Class QuickselectTopK
+ * This class keeps the smallest k numbers in a buffer of 2k numbers.
+ * When the buffer is full, it is partitioned around its k'th smallest number (based on Select in the course book),
+ * the bigger half is thrown away, and the k'th number becomes the threshold: a number which is not smaller than it
+ * is rejected with a single compare. Every 2k numbers cost one linear partition, so the time for n numbers is O(n),
+ * but the kept numbers are not sorted, so it fits when check points are rare.
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+public class QuickselectTopK implements TopK
+{
+    private int[] buffer;           // The kept numbers are buffer[0 .. n-1].
+    private int n;                  // The count of numbers in the buffer.
+    private long threshold;         // Numbers which are not smaller than this are rejected, bigger than every int until the first partition.
+    private int[] sorted;           // The copy of the buffer that snapshot() sorts, kept for the next snapshot.
+
+    public int k;                   // The maximum size.
+
+    // Default Constructor.
+    public QuickselectTopK(int k)
+    {
+        this.k = k;
+        buffer = new int[2 * k];
+        sorted = new int[2 * k];
+        n = 0;
+        threshold = (k == 0) ? Long.MIN_VALUE : Long.MAX_VALUE;
+    }
+
+    /**
+     * The function inserts a number.
+     *
+     * @param: key, the number.
+     */
+    public void Insert(int key)
+    {
+        // If the key is not smaller than the threshold, we don't insert it.
+        if (key >= threshold)
+            return;
+
+        buffer[n++] = key;
+
+        // If the buffer is full, keep only its smallest k numbers.
+        if (n == buffer.length)
+        {
+            select(buffer, 0, n - 1, k - 1);
+            n = k;
+            threshold = buffer[k - 1];
+        }
+    }
+
+    /**
+     * The function empties the structure, and keeps its memory for the numbers that come next.
+     */
+    public void clear()
+    {
+        n = 0;
+        threshold = (k == 0) ? Long.MIN_VALUE : Long.MAX_VALUE;
+    }
+
+    /**
+     * @return: Returns the k'th number of the last partition, Long.MAX_VALUE before the first one.
+     */
+    public long threshold()
+    {
+        return threshold;
+    }
+
+    /**
+     * The Algorithm is based on Randomized-Select in the course book, without recursion.
+     * The function moves the i'th smallest number of a[lo .. hi] to index i, the smaller ones before it and the bigger ones after it.
+     *
+     * @param: a, the array.
+     * @param: lo, the first index.
+     * @param: hi, the last index.
+     * @param: i, the index of the wanted number.
+     */
+    private static void select(int [] a, int lo, int hi, int i)
+    {
+        while (lo < hi)
+        {
+            // The pivot is the median of the first, middle and last numbers.
+            int middle = (lo + hi) >>> 1;
+            int pivot = Math.max(Math.min(a[lo], a[middle]), Math.min(Math.max(a[lo], a[middle]), a[hi]));
+            int l = lo;
+            int r = hi;
+
+            // Hoare partition: a[lo .. r] <= pivot <= a[l .. hi].
+            while (l <= r)
+            {
+                while (a[l] < pivot)
+                    l++;
+
+                while (a[r] > pivot)
+                    r--;
+
+                if (l <= r)
+                {
+                    int temp = a[l];
+                    a[l++] = a[r];
+                    a[r--] = temp;
+                }
+            }
+
+            // Continue only in the part that holds index i.
+            if (i <= r)
+                hi = r;
+
+            else if (i >= l)
+                lo = l;
+
+                else
+                    return;
+        }
+    }
+
+    /**
+     * @return: Returns how many numbers are kept, at most k.
+     */
+    public int size()
+    {
+        return Math.min(n, k);
+    }
+
+    /**
+     * The function copies the smallest k numbers into dest in sorted order.
+     *
+     * @param: dest, the array to fill.
+     * @return: Returns the number of numbers copied.
+     */
+    public int snapshot(int [] dest)
+    {
+        int count = Math.min(size(), dest.length);
+
+        System.arraycopy(buffer, 0, sorted, 0, n);
+        Arrays.sort(sorted, 0, n);
+        System.arraycopy(sorted, 0, dest, 0, count);
+        return count;
+    }
+}
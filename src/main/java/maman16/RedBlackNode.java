@@ -1,3 +1,5 @@
+package maman16;
+
 /**
  * Class RedBlackNode
  * This class represent one node in a RB Tree.
@@ -13,6 +15,7 @@ class RedBlackNode<T extends Comparable<T>>
     public static final int RED = 1;        // Possible color for this node.
     public T key;                           // The key of the node.
     public int color;                       // The color of the node.
+    public int size;                        // The number of nodes in the subtree rooted at this node, 0 for nil.
     
     protected RedBlackNode<T> parent;       // The parent node.
     protected RedBlackNode<T> left;         // The left child.
@@ -36,5 +39,6 @@ class RedBlackNode<T extends Comparable<T>>
     {
         this();
         this.key = key;
+        this.size = 1;
     }
 }
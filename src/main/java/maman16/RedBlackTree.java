@@ -0,0 +1,1567 @@
+package maman16;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Class RedBlack Tree
+ * The implementation of all the functions are based on the algorithem in the book of the course.
+ * The only change is the use of generic type instead of int type.
+ * 
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+public class RedBlackTree<T extends Comparable<T>> implements Iterable<T>
+{
+    // True to count what the tree does, set with -Dmaman16.stats=true. The JIT treats it as a constant,
+    // so when it is false every "if (STATS)" block is removed from the compiled code.
+    static final boolean STATS = Boolean.getBoolean("maman16.stats");
+
+    // More than twice the height of any red-black tree with up to 2^31 nodes.
+    private static final int MAX_PATH_STEPS = 128;
+
+    // The nil node, one for all the trees, so the nodes of one tree can be hung in another without a walk (see join).
+    // It is never changed: its parent and children are itself and its color is black, and the only writes to it
+    // write these same values, so trees in different threads can share it.
+    private static final RedBlackNode<?> NIL = sentinel();
+
+    // Root initialized to nill.
+    private final RedBlackNode<T> nil = nil();
+    private RedBlackNode<T> root = nil;
+    private RedBlackNode<T> max = nil;      // The node holding the maximum key, nil while the tree is empty.
+    
+    public int k;                   // The maximum size of the tree.
+    public int currSize;            // The current size of the tree.
+
+    private StringBuilder buffer;   // The buffer of printkMin(), kept for the next print.
+
+    // The counters, they change only when STATS is true.
+    private long inserts;           // Calls to Insert(key).
+    private long rejections;        // Calls to Insert(key) on a full tree that did not keep the key.
+    private long comparisons;       // Calls to compareTo.
+    private long leftRotations;     // Calls to leftRotate.
+    private long rightRotations;    // Calls to rightRotate.
+    private long insertFixupLoops;  // Rounds of the loop in InsertFixup.
+    private long removeFixupLoops;  // Rounds of the loop in RemoveFixup.
+
+    // Default Constructor.
+    public RedBlackTree(int k) 
+    {
+        this.k = k;
+        currSize = 0;
+    }
+
+    // Constructor for a tree without a maximum size, it keeps every key and answers select and rank for any k.
+    public RedBlackTree()
+    {
+        this(Integer.MAX_VALUE);
+    }
+    
+    /**
+     * @return: Returns a new nil node, whose parent and children are itself.
+     */
+    private static RedBlackNode<?> sentinel()
+    {
+        RedBlackNode<Integer> x = new RedBlackNode<Integer>();
+
+        x.parent = x;
+        x.left = x;
+        x.right = x;
+        return x;
+    }
+
+    /**
+     * @return: Returns the shared nil node, typed for this tree.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends Comparable<T>> RedBlackNode<T> nil()
+    {
+        return (RedBlackNode<T>) NIL;
+    }
+
+    /**
+     * @return: Returns the root of the tree, a nil node if the tree is empty.
+     */
+    RedBlackNode<T> getRoot()
+    {
+        return root;
+    }
+
+    /**
+     * The function compares two keys, and counts the comparison.
+     *
+     * @param: a, a key.
+     * @param: b, a key.
+     * @return: Returns a.compareTo(b).
+     */
+    private int compare(T a, T b)
+    {
+        if (STATS)
+            comparisons++;
+
+        return a.compareTo(b);
+    }
+
+    /** 
+     * Function for checking if the node is nil.
+     *
+     * @param: node, The RedBlackNode we must check to see whether it's nil.
+     * @return: Returns true if node is nil and false otherwise.
+     */
+    private boolean isNil(RedBlackNode<?> node)
+    {
+        return node == nil;
+    }
+        
+    /** 
+     * The Algorithm is based on the one in page 234 in the course book.
+     * The function Performs a left Rotate around x.
+     *
+     * @param: x, The node which the lefRotate is to be performed on.
+     */
+    private void leftRotate(RedBlackNode<T> x)
+    {
+        if (STATS)
+            leftRotations++;
+
+        RedBlackNode<T> y = x.right;    // Set Y.
+        x.right = y.left;               // Turn y's left subtree into x's right subtree.
+
+        if (!isNil(y.left))             // Check for existence of y.left and make pointer changes.
+            y.left.parent = x;
+            
+        y.parent = x.parent;            // Link x's parent to y.            
+
+        if (isNil(x.parent))            // x's parent is nil.
+            root = y;
+
+        else if (x.parent.left == x)    // x is the left child of its parent.
+            x.parent.left = y;
+
+            else                        // x is the right child of its parent.
+                x.parent.right = y;
+
+        y.left = x;                     // Put x on y's left.
+        x.parent = y;
+
+        y.size = x.size;                // y takes over x's subtree, and x's size is recounted.
+        x.size = x.left.size + x.right.size + 1;
+    }
+ 
+    /**
+     * The Algorithm based on the one in page 187 in the study instructions book.
+     * The function Performs a right Rotate around x.
+     * 
+     * @param: x, The node which the rightRotate is to be performed on.
+     */
+    private void rightRotate(RedBlackNode<T> x)
+    {
+        if (STATS)
+            rightRotations++;
+
+        RedBlackNode<T> y = x.left;         // Set Y.
+        x.left = y.right;                   // Turn y's right subtree into x's left subtree.
+
+        if (!isNil(y.right))                // Check for existence of y.right and make pointer changes.
+            y.right.parent = x;
+            
+        y.parent = x.parent;                // Link x's parent to y.         
+
+        if (isNil(x.parent))                // x's parent is nil.
+            root = y;
+
+        else if (x.parent.right == x)       // x is the right child of its parent.
+            x.parent.right = y;
+
+            else                            // x is the left child of its parent.
+                x.parent.left = y;
+
+        y.right = x;                        // Put x on y's right.
+        x.parent = y;
+
+        y.size = x.size;                    // y takes over x's subtree, and x's size is recounted.
+        x.size = x.left.size + x.right.size + 1;
+    }
+    
+    /**
+     * The Algorithm is based on the one in page 217 in the course book.
+     * because RBT is based on binary-search tree, the algorithm is viable for our RedBlackTree.
+     *
+     * @param: x, a RedBlackNode.
+     * @return: Returns the current minimum value in the tree.
+     */
+    public RedBlackNode<T> TreeMinimum(RedBlackNode<T> x)
+    {
+        // While there is a smaller key, keep going left.
+        while (!isNil(x.left))
+            x = x.left;
+            
+        return x;
+    }
+
+    /**
+     * The Algorithm is based on the one in page 217 in the course book.
+     * because RBT is based on binary-search tree, the algorithem is viable for our RedBlackTree.
+     *
+     * @param: x, a RedBlackNode.
+     * @return: Returns the current maximum value in the tree.
+     */
+    public RedBlackNode<T> TreeMaximum(RedBlackNode<T> x)
+    {
+        // While there is a smaller key, keep going left.
+        while (!isNil(x.right)) 
+            x = x.right;
+            
+        return x;
+    }
+
+    /**
+     * The Algorithm is based on the one in page 218 in the course book.
+     * because RBT is based on binary-search-tree structure, the algorithem is viable for our RedBlackTree.
+     *
+     * @param: x, a RedBlackNode whose successor we must find.
+     * @return: Returns the node that has the next higher key in the Tree after x.
+     */
+    public RedBlackNode<T> TreeSuccessor(RedBlackNode<T> x)
+    {
+        // If x.right is not nil, call treeMinimum(x.right) and return its value.
+        if (!isNil(x.right))
+            return TreeMinimum(x.right);
+
+        RedBlackNode<T> y = x.parent;
+
+        // While x is its parents right child:
+        while (!isNil(y) && x == y.right)
+        {
+            // Keep moving up in the tree.
+            x = y;
+            y = y.parent;
+        }
+        
+        // Return successor.
+        return y;         
+    }
+
+    /**
+     * The mirror image of TreeSuccessor.
+     *
+     * @param: x, a RedBlackNode whose predecessor we must find.
+     * @return: Returns the node that has the next lower key in the Tree before x, or nil if x is the minimum.
+     */
+    public RedBlackNode<T> TreePredecessor(RedBlackNode<T> x)
+    {
+        // If x.left is not nil, call treeMaximum(x.left) and return its value.
+        if (!isNil(x.left))
+            return TreeMaximum(x.left);
+
+        RedBlackNode<T> y = x.parent;
+
+        // While x is its parents left child:
+        while (!isNil(y) && x == y.left)
+        {
+            // Keep moving up in the tree.
+            x = y;
+            y = y.parent;
+        }
+        
+        // Return predecessor.
+        return y;         
+    }
+           
+    /**
+     * A function that calls the actuall function.
+     * Once the tree is full, a key which is not smaller than the cached maximum is rejected with a single compare,
+     * and an accepted key reuses the node of the evicted maximum, so no node is allocated.
+     *
+     * @param: the key you want to insert to the tree. 
+     */
+    public void Insert(T key) 
+    {        
+        RedBlackNode<T> z;
+
+        if (STATS)
+            inserts++;
+        
+        // If the tree is full (current size = k).
+        if (currSize == k)
+        {
+                // If the key is not smaller then the maximum, we don't insert it and end the program.
+                if (isNil(max) || compare(key, max.key) >= 0)
+                {
+                    if (STATS)
+                        rejections++;
+
+                    return;
+                }
+
+                // Else, we delete the maximum and reuse its node for the new key.
+                z = max;
+                max = TreePredecessor(z);
+                Remove(z);
+                z.key = key;
+                Insert(z);  // Call the actual Insert function.
+        }
+        
+        // If the tree is not full yet, insert a new node to the tree.
+        else
+        {
+            z = new RedBlackNode<T>(key);       // Create a new node for the tree.
+            Insert(z);  // Call the actual Insert function.
+            currSize++;
+        }
+    }
+    
+    /**
+     * The Algorithm is based on Tree-Search in the course book.
+     *
+     * @param: key, the key we search.
+     * @return: Returns a node with the key, or nil if the key is not in the tree.
+     */
+    private RedBlackNode<T> Search(T key)
+    {
+        RedBlackNode<T> x = root;
+        int c;
+
+        while (!isNil(x) && (c = compare(key, x.key)) != 0)
+        {
+            if (c < 0)
+                x = x.left;
+
+            else
+                x = x.right;
+        }
+
+        return x;
+    }
+
+    /**
+     * The function deletes one copy of a key from the tree with Remove.
+     *
+     * @param: key, the key we want to delete.
+     * @return: Returns true if the key was in the tree, false otherwise.
+     */
+    public boolean delete(T key)
+    {
+        RedBlackNode<T> z = Search(key);
+
+        if (isNil(z))
+            return false;
+
+        Remove(z);
+        currSize--;
+
+        // Remove may move the maximum key into z, so find the maximum again.
+        max = TreeMaximum(root);
+        return true;
+    }
+
+    /**
+     * The Algorithm is based on the one in page 236 in the course book.
+     * The function inserts the node z into the appropriate position in the RedBlackTree while updating the size of every node on the way down.
+     *
+     * @param: z, the node to be inserted into the Tree rooted at root.
+     */
+    private void Insert(RedBlackNode<T> z) 
+    {
+            // Create a reference to root & initialize a node to nil.
+            RedBlackNode<T> y = nil;
+            RedBlackNode<T> x = root;                       
+
+            while (!isNil(x))
+            {
+                y = x;
+                x.size++;                           // z will be in the subtree of x.
+
+                if (compare(z.key, x.key) < 0)     // If z.key is < than the current key, go left.
+                {
+                    x = x.left;
+                }
+
+                else                                // Else, if z.key >= x.key so go right.
+                {               
+                    x = x.right;
+                }
+            }
+            
+            // Initialize z's children to nil and z's color to red, before z can be reached from the tree,
+            // so a reader without a lock (see ConcurrentRedBlackTree) never finds null or old children in it.
+            z.left = nil;
+            z.right = nil;
+            z.color = RedBlackNode.RED;
+            z.size = 1;
+
+            // z's parent will hold y.
+            z.parent = y;        
+
+            // Depending on the value of y.key, put z as the left or right child of y.
+            if (isNil(y))
+                root = z;
+                
+            else if (compare(z.key, y.key) < 0)
+                y.left = z;
+                
+                else
+                    y.right = z;
+
+            // Equal keys go right, so z is the new maximum when it is not smaller than the old one.
+            // Rotations and fixups never move a key, so the cached maximum stays valid through them.
+            if (isNil(max) || compare(z.key, max.key) >= 0)
+                max = z;
+
+            // Call insertFixup(z).
+            InsertFixup(z);
+    }
+
+    /**
+     * The Algorithm is based on the one in page 236 in the course book.
+     * The function fixes up the violation of the RedBlackTree properties that may have been caused during insert(z).
+     *
+     * @param: z, the node which was inserted and may have caused a violation of the RedBlackTree properties.
+     */
+    private void InsertFixup(RedBlackNode<T> z)
+    {
+        RedBlackNode<T> y = nil;
+        
+        // While there is a violation of the RedBlackTree properties..
+        while (z.parent.color == RedBlackNode.RED)
+        {             
+            if (STATS)
+                insertFixupLoops++;
+
+            if (z.parent == z.parent.parent.left)               // If z's parent is the the left child of it's parent.
+            {                
+                y = z.parent.parent.right;                      // Initialize y to z 's cousin.
+
+                // Case 1: if y is red...recolor.
+                if (y.color == RedBlackNode.RED)             
+                {
+                    z.parent.color = RedBlackNode.BLACK;
+                    y.color = RedBlackNode.BLACK;
+                    z.parent.parent.color = RedBlackNode.RED;
+                    z = z.parent.parent;
+                }
+                
+                // Case 2: if y is black & z is a right child.
+                else if (z == z.parent.right)
+                {
+                    // leftRotate around z's parent.
+                    z = z.parent;
+                    leftRotate(z);
+                }
+
+                // Case 3: else y is black & z is a left child.
+                else
+                {
+                    // Recolor and rotate round z's grandpa.
+                    z.parent.color = RedBlackNode.BLACK;
+                    z.parent.parent.color = RedBlackNode.RED;
+                    rightRotate(z.parent.parent);
+                }
+            }
+
+            // If z's parent is the right child of it's parent.
+            else
+            {
+                y = z.parent.parent.left;                       // Initialize y to z's cousin.
+
+                // Case 1: if y is red, recolor.
+                if (y.color == RedBlackNode.RED)
+                {
+                    z.parent.color = RedBlackNode.BLACK;
+                    y.color = RedBlackNode.BLACK;
+                    z.parent.parent.color = RedBlackNode.RED;
+                    z = z.parent.parent;
+                }
+
+                // Case 2: if y is black and z is a left child.
+                else if (z == z.parent.left)
+                {
+                    // rightRotate around z's parent
+                    z = z.parent;
+                    rightRotate(z);
+                }
+                
+                // Case 3: if y  is black and z is a right child.
+                else
+                {
+                    // Recolor and rotate around z's grandpa.
+                    z.parent.color = RedBlackNode.BLACK;
+                    z.parent.parent.color = RedBlackNode.RED;
+                    leftRotate(z.parent.parent);
+                }
+            }
+        }
+        
+        // Color root black at all times.
+        root.color = RedBlackNode.BLACK;
+    }   
+    
+    /**
+     * The Algorithm is based on the one in page 242 in the course book.
+     * The function gets the maximum in the tree from the function insert, or any node from delete, and deletes it.
+     *
+     * @param: z, the node we want to delete.
+     * The function remove's z from the RedBlackTree rooted at root.
+     */
+    private void Remove(RedBlackNode<T> z)
+    {
+        // Declare variables.
+        RedBlackNode<T> x = nil;
+        RedBlackNode<T> y = nil;
+        RedBlackNode<T> p;              // The parent of x, kept here since x may be the shared nil.
+
+        // If either one of z's children is nil, then we must remove z.
+        if (isNil(z.left) || isNil(z.right))
+            y = z;
+
+        // Else we must remove the successor of z.
+        else y = TreeSuccessor(z);
+
+        // Let x be the left or right child of y (y can only have one child).
+        if (!isNil(y.left))
+            x = y.left;
+            
+        else
+            x = y.right;
+
+        // Link x's parent to y's parent.
+        p = y.parent;
+
+        if (!isNil(x))
+            x.parent = p;
+
+        // If y's parent is nil, then x is the root.
+        if (isNil(y.parent))
+            root = x;
+
+        // Else if y is a left child, set x to be y's left sibling.
+        else if (y.parent.left == y)
+            y.parent.left = x;
+
+        // Else if y is a right child, set x to be y's right sibling.
+        else if (y.parent.right == y)
+            y.parent.right = x;
+
+        // If y != z, trasfer y's satellite data into z.
+        if (y != z)
+            z.key = y.key;
+
+        // y is gone, so every node above it lost one node in its subtree.
+        for (RedBlackNode<T> a = p; !isNil(a); a = a.parent)
+            a.size--;
+             
+        // If y's color is black, it is a violation of the RedBlackTree properties so call removeFixup().
+        if (y.color == RedBlackNode.BLACK)
+            RemoveFixup(x, p);
+    }
+
+    /**
+     * The Algorithm is based on the one in page 243 in the course book.
+     * The function restores the Red Black properties that may have been violated during the removal of a node in remove(RedBlackNode v).
+     *
+     * The parent of x is passed on its own, since x may be nil, and the nil node is shared and never changed.
+     *
+     * @param: x, the child of the deleted node from remove(RedBlackNode v).
+     * @param: p, the parent of x.
+     */
+    private void RemoveFixup(RedBlackNode<T> x, RedBlackNode<T> p)
+    {
+        RedBlackNode<T> w;
+
+        // While we haven't fixed the tree completely...
+        while (x != root && x.color == RedBlackNode.BLACK)
+        {      
+            if (STATS)
+                removeFixupLoops++;
+
+            if (x == p.left)           // If x is it's parent's left child.
+            {
+                // Set w to x's sibling.
+                w = p.right; 
+
+                // Case 1: w's color is red.
+                if (w.color == RedBlackNode.RED)
+                {
+                    w.color = RedBlackNode.BLACK;
+                    p.color = RedBlackNode.RED;
+                    leftRotate(p);
+                    w = p.right;
+                }
+
+                // Case 2: both of w's children are black.
+                if (w.left.color == RedBlackNode.BLACK && w.right.color == RedBlackNode.BLACK)
+                {
+                    w.color = RedBlackNode.RED;
+                    x = p;
+                    p = x.parent;
+                }
+                
+                // Case 3 and Case 4.
+                else
+                {
+                    
+                    // Case 3: w's right child is black.
+                    if (w.right.color == RedBlackNode.BLACK)
+                    {
+                        w.left.color = RedBlackNode.BLACK;
+                        w.color = RedBlackNode.RED;
+                        rightRotate(w);
+                        w = p.right;
+                    }
+                    
+                    // Case 4: w = black, w.right = red.
+                    w.color = p.color;
+                    p.color = RedBlackNode.BLACK;
+                    w.right.color = RedBlackNode.BLACK;
+                    leftRotate(p);
+                    x = root;
+                }
+            }
+              
+            else       // If x is it's parent's right child.
+            {
+                // Set w to x's sibling.
+                w = p.left;
+
+                // Case 1: w's color is red.
+                if (w.color == RedBlackNode.RED)
+                {
+                    w.color = RedBlackNode.BLACK;
+                    p.color = RedBlackNode.RED;
+                    rightRotate(p);
+                    w = p.left;
+                }
+
+                // Case 2: both of w's children are black.
+                if (w.right.color == RedBlackNode.BLACK && w.left.color == RedBlackNode.BLACK)
+                {
+                    w.color = RedBlackNode.RED;
+                    x = p;
+                    p = x.parent;
+                }
+
+                // Case 3 and Case 4.
+                else
+                {
+                    
+                    // Case 3: w's left child is black.
+                     if (w.left.color == RedBlackNode.BLACK)
+                     {
+                        w.right.color = RedBlackNode.BLACK;
+                        w.color = RedBlackNode.RED;
+                        leftRotate(w);
+                        w = p.left;
+                    }
+
+                    // Case 4: w = black, and w.left = red.
+                    w.color = p.color;
+                    p.color = RedBlackNode.BLACK;
+                    w.left.color = RedBlackNode.BLACK;
+                    rightRotate(p);
+                    x = root;
+                }
+            }
+        }
+
+        // Set x to black to ensure there is no violation of RedBlack tree Properties (nil is black already).
+        if (!isNil(x))
+            x.color = RedBlackNode.BLACK;
+    }
+
+    /**
+     * The function joins this tree, key and other into this tree, based on RB-Join in the problems of the red-black trees chapter in the course book.
+     * All the keys of this tree must be <= key and all the keys of other must be >= key, other is left empty.
+     * All the trees share one nil node, so the nodes of other are used as they are, and it takes O(log n).
+     *
+     * @param: key, the key between the two trees.
+     * @param: other, the tree with the bigger keys.
+     */
+    public void join(T key, RedBlackTree<T> other)
+    {
+        RedBlackNode<T> r = adopt(other);
+        setRoot(join(root, new RedBlackNode<T>(key), r));
+    }
+
+    /**
+     * The same as join(key, other), without a key between the trees: the minimum of other is taken out and used as the key.
+     *
+     * @param: other, the tree with the bigger keys, all its keys must be >= the keys of this tree.
+     */
+    public void join(RedBlackTree<T> other)
+    {
+        RedBlackNode<T> m;
+
+        if (other.isNil(other.root))
+            return;
+
+        // The minimum has no left child, so Remove takes out the node m itself and not its successor.
+        m = other.TreeMinimum(other.root);
+        other.Remove(m);
+
+        RedBlackNode<T> r = adopt(other);
+        setRoot(join(root, m, r));
+    }
+
+    /**
+     * The function splits this tree by a key: this tree keeps the keys smaller than key, and the rest go to a new tree.
+     * It takes O(log n).
+     *
+     * @param: key, the key to split by.
+     * @return: Returns a new tree, with the same maximum size, that holds the keys of this tree that are >= key.
+     */
+    public RedBlackTree<T> split(T key)
+    {
+        RedBlackTree<T> right = new RedBlackTree<T>(k);
+        RedBlackNode<T>[] parts = pair();
+
+        split(root, key, parts);
+        divide(parts[0], parts[1], right);
+        return right;
+    }
+
+    /**
+     * The function moves all the keys of other into this tree, other is left empty.
+     * The keys of other are not inserted one by one: this tree is split by the root key of other and the parts are joined
+     * again around it, so the work is O(m log(n/m + 1)) for trees of sizes n >= m.
+     * If the tree ends up with more than k keys, only the smallest k are kept, and when this tree is already full,
+     * the keys of other that are not smaller than its maximum are cut off with one split before the union.
+     *
+     * @param: other, the tree whose keys are added.
+     */
+    public void union(RedBlackTree<T> other)
+    {
+        RedBlackNode<T>[] parts = pair();
+
+        // A full tree never keeps a key which is not smaller than its maximum, like Insert.
+        if (currSize >= k && !isNil(max))
+        {
+            other.split(other.root, max.key, parts);
+            other.setRoot(parts[0]);
+        }
+
+        RedBlackNode<T> b = adopt(other);
+        setRoot(union(root, b, parts));
+    }
+
+    /**
+     * The bounded merge of two partial results: a new tree with the smallest k keys of a and b.
+     * The first union takes over the nodes of a without walking them, a and b are left empty.
+     *
+     * @param: a, a tree.
+     * @param: b, a tree.
+     * @param: k, the maximum size of the new tree.
+     * @return: Returns a new tree with the smallest k keys of both trees.
+     */
+    public static <T extends Comparable<T>> RedBlackTree<T> merge(RedBlackTree<T> a, RedBlackTree<T> b, int k)
+    {
+        RedBlackTree<T> tree = new RedBlackTree<T>(k);
+
+        tree.union(a);
+        tree.union(b);
+        return tree;
+    }
+
+    /**
+     * @return: Returns a new array for the two parts of a split.
+     */
+    private RedBlackNode<T>[] pair()
+    {
+        @SuppressWarnings("unchecked")
+        RedBlackNode<T>[] parts = (RedBlackNode<T>[]) new RedBlackNode<?>[2];
+
+        return parts;
+    }
+
+    /**
+     * The function makes x the root after a bulk operation, keeps only the smallest k keys, and sets currSize and max again.
+     *
+     * @param: x, the root of a red-black tree hung on the nil of this tree.
+     */
+    private void setRoot(RedBlackNode<T> x)
+    {
+        RedBlackNode<T>[] parts;
+
+        if (x.size > k)
+        {
+            parts = pair();
+            splitAt(x, k, parts);
+            x = parts[0];
+        }
+
+        root = x;
+        root.parent = nil;
+        root.color = RedBlackNode.BLACK;
+        currSize = root.size;
+        max = TreeMaximum(root);
+    }
+
+    /**
+     * The function takes the nodes of other, which can be used in this tree as they are since all the trees share nil.
+     *
+     * @param: other, the tree whose nodes are taken, it is left empty.
+     * @return: Returns the root of other.
+     */
+    private RedBlackNode<T> adopt(RedBlackTree<T> other)
+    {
+        RedBlackNode<T> x = other.root;
+
+        other.root = nil;
+        other.max = nil;
+        other.currSize = 0;
+        return x;
+    }
+
+    /**
+     * The function gives the subtree x to the empty tree dest and keeps the subtree y.
+     *
+     * @param: y, the subtree this tree keeps.
+     * @param: x, the subtree dest gets.
+     * @param: dest, an empty tree.
+     */
+    private void divide(RedBlackNode<T> y, RedBlackNode<T> x, RedBlackTree<T> dest)
+    {
+        setRoot(y);
+        dest.setRoot(x);
+    }
+
+    /**
+     * The Algorithm is based on RB-Join in the problems of the red-black trees chapter in the course book.
+     * The function joins the subtrees l and r with the node m between them, where the keys of l are <= m.key <= the keys of r.
+     * It goes down the side of the higher tree to a black node with the black height of the lower one, puts m there red,
+     * and fixes the colors with InsertFixup, so it takes O(|black height of l - black height of r| + 1).
+     * The field root is used as scratch space while it runs.
+     *
+     * @param: l, the root of a red-black tree or nil.
+     * @param: m, a node that is not in any tree.
+     * @param: r, the root of a red-black tree or nil.
+     * @return: Returns the root of the joined tree.
+     */
+    private RedBlackNode<T> join(RedBlackNode<T> l, RedBlackNode<T> m, RedBlackNode<T> r)
+    {
+        RedBlackNode<T> p = nil;
+        RedBlackNode<T> y;
+        int hl, hr, h;
+
+        // Both sides become whole trees with a black root.
+        l.parent = nil;
+        r.parent = nil;
+        l.color = RedBlackNode.BLACK;
+        r.color = RedBlackNode.BLACK;
+        hl = blackHeight(l);
+        hr = blackHeight(r);
+
+        // If l is higher, go down its right side to a black node y with the black height of r, m takes its place.
+        if (hl >= hr)
+        {
+            y = l;
+            h = hl;
+
+            while (y.color == RedBlackNode.RED || h > hr)
+            {
+                if (y.color == RedBlackNode.BLACK)
+                    h--;
+
+                p = y;
+                y = y.right;
+            }
+
+            m.left = y;
+            m.right = r;
+            root = l;
+
+            if (!isNil(r))
+                r.parent = m;
+
+            if (isNil(p))
+                root = m;
+
+            else
+                p.right = m;
+        }
+
+        // Else go down the left side of r.
+        else
+        {
+            y = r;
+            h = hr;
+
+            while (y.color == RedBlackNode.RED || h > hl)
+            {
+                if (y.color == RedBlackNode.BLACK)
+                    h--;
+
+                p = y;
+                y = y.left;
+            }
+
+            m.left = l;
+            m.right = y;
+            root = r;
+
+            if (!isNil(l))
+                l.parent = m;
+            p.left = m;
+        }
+
+        if (!isNil(y))
+            y.parent = m;
+
+        m.parent = p;
+        m.color = RedBlackNode.RED;
+        m.size = m.left.size + m.right.size + 1;
+
+        // Every node above m got the nodes of the lower tree and m.
+        for (RedBlackNode<T> x = p; !isNil(x); x = x.parent)
+            x.size += m.size - y.size;
+
+        // m is red, so only a red parent can be a violation, the same one Insert leaves.
+        InsertFixup(m);
+        return root;
+    }
+
+    /**
+     * The function splits the subtree x by a key, and joins the parts on the way back up.
+     *
+     * @param: x, the root of a red-black tree or nil.
+     * @param: key, the key to split by.
+     * @param: parts, gets the root of the keys smaller than key in parts[0], and of the rest in parts[1].
+     */
+    private void split(RedBlackNode<T> x, T key, RedBlackNode<T>[] parts)
+    {
+        RedBlackNode<T> l = x.left;
+        RedBlackNode<T> r = x.right;
+
+        if (isNil(x))
+        {
+            parts[0] = nil;
+            parts[1] = nil;
+        }
+
+        // x and its right subtree are not smaller than key.
+        else if (compare(key, x.key) <= 0)
+        {
+            split(l, key, parts);
+            parts[1] = join(parts[1], x, r);
+        }
+
+        // x and its left subtree are smaller than key.
+        else
+        {
+            split(r, key, parts);
+            parts[0] = join(l, x, parts[0]);
+        }
+    }
+
+    /**
+     * The same as split by a key, by a rank instead.
+     *
+     * @param: x, the root of a red-black tree or nil.
+     * @param: i, the number of keys to put in the first part.
+     * @param: parts, gets the root of the smallest i keys in parts[0], and of the rest in parts[1].
+     */
+    private void splitAt(RedBlackNode<T> x, int i, RedBlackNode<T>[] parts)
+    {
+        RedBlackNode<T> l = x.left;
+        RedBlackNode<T> r = x.right;
+
+        if (isNil(x))
+        {
+            parts[0] = nil;
+            parts[1] = nil;
+        }
+
+        else if (i <= l.size)
+        {
+            splitAt(l, i, parts);
+            parts[1] = join(parts[1], x, r);
+        }
+
+        else
+        {
+            splitAt(r, i - l.size - 1, parts);
+            parts[0] = join(l, x, parts[0]);
+        }
+    }
+
+    /**
+     * The function joins the keys of the subtrees a and b: a is split by the root key of b, and each part is joined
+     * with the same side of b.
+     *
+     * @param: a, the root of a red-black tree or nil.
+     * @param: b, the root of a red-black tree or nil.
+     * @param: parts, space for split.
+     * @return: Returns the root of the joined tree.
+     */
+    private RedBlackNode<T> union(RedBlackNode<T> a, RedBlackNode<T> b, RedBlackNode<T>[] parts)
+    {
+        RedBlackNode<T> l = b.left;
+        RedBlackNode<T> r = b.right;
+        RedBlackNode<T> bigger;
+
+        if (isNil(a))
+            return b;
+
+        if (isNil(b))
+            return a;
+
+        split(a, b.key, parts);
+        bigger = parts[1];
+        l = union(parts[0], l, parts);
+        r = union(bigger, r, parts);
+        return join(l, b, r);
+    }
+
+    /**
+     * The function measures the height of the tree, the count of nodes on the longest path from the root down.
+     * It walks the whole tree with a queue, one level after the other, so it takes O(n).
+     * A reader without a lock (see RedBlackTreeMonitor) can see the links in the middle of a rotation, even a cycle,
+     * so the walk gives up after more nodes or more levels than a valid tree has, like snapshotUnlocked.
+     *
+     * @return: Returns the height of the tree, 0 if it is empty, -1 if the walk gave up.
+     */
+    public int height()
+    {
+        List<RedBlackNode<T>> level = new ArrayList<RedBlackNode<T>>();
+        List<RedBlackNode<T>> next = new ArrayList<RedBlackNode<T>>();
+        long nodes = (long) currSize + 1;       // The most nodes the walk may still visit.
+        int height = 0;
+
+        if (!isNil(root))
+            level.add(root);
+
+        while (!level.isEmpty())
+        {
+            height++;
+            nodes -= level.size();
+
+            if (nodes < 0 || height > MAX_PATH_STEPS)
+                return -1;
+
+            for (RedBlackNode<T> x : level)
+            {
+                if (!isNil(x.left))
+                    next.add(x.left);
+
+                if (!isNil(x.right))
+                    next.add(x.right);
+            }
+
+            List<RedBlackNode<T>> temp = level;
+            level = next;
+            next = temp;
+            next.clear();
+        }
+
+        return height;
+    }
+
+    /**
+     * The function measures the black height of the tree, the count of black nodes on any path from the root down.
+     * All the paths have the same count, so it walks only the left one.
+     *
+     * @return: Returns the black height of the tree, 0 if it is empty, -1 if the walk gave up (see height).
+     */
+    public int blackHeight()
+    {
+        return blackHeight(root);
+    }
+
+    /**
+     * @param: x, the root of a subtree.
+     * @return: Returns the count of black nodes on any path from x down, 0 for nil, -1 if the walk gave up.
+     */
+    private int blackHeight(RedBlackNode<T> x)
+    {
+        int height = 0;
+
+        for (int steps = MAX_PATH_STEPS; !isNil(x); x = x.left)
+        {
+            if (--steps < 0)
+                return -1;
+
+            if (x.color == RedBlackNode.BLACK)
+                height++;
+        }
+
+        return height;
+    }
+
+    /**
+     * The function copies the counters of the tree.
+     * The counters are kept only when the program runs with -Dmaman16.stats=true, otherwise they are all 0.
+     *
+     * It may be called without a lock while the tree changes, the heights are then -1 if their walk gave up.
+     *
+     * @return: Returns the counters, the size, the height and the black height of the tree right now.
+     */
+    public RedBlackTreeStats stats()
+    {
+        return new RedBlackTreeStats(currSize, height(), blackHeight(), inserts, rejections, comparisons,
+                                     leftRotations, rightRotations, insertFixupLoops, removeFixupLoops);
+    }
+
+    /**
+     * The function sets all the counters of the tree back to 0.
+     */
+    public void resetStats()
+    {
+        inserts = 0;
+        rejections = 0;
+        comparisons = 0;
+        leftRotations = 0;
+        rightRotations = 0;
+        insertFixupLoops = 0;
+        removeFixupLoops = 0;
+    }
+
+    /**
+     * The Algorithm is based on OS-Select in the chapter on augmenting data structures in the course book.
+     *
+     * @param: i, the rank of the wanted key, 1 for the minimum.
+     * @return: Returns the i'th smallest key in the tree, or null if i is not between 1 and the size of the tree.
+     */
+    public T select(int i)
+    {
+        if (i < 1 || i > root.size)
+            return null;
+
+        return selectNode(i).key;
+    }
+
+    /**
+     * The same as select, for an i between 1 and the size of the tree.
+     *
+     * @param: i, the rank of the wanted node, 1 for the minimum.
+     * @return: Returns the node with the i'th smallest key.
+     */
+    private RedBlackNode<T> selectNode(int i)
+    {
+        RedBlackNode<T> x = root;
+
+        // Go down from the root, the size of the left subtree tells us where the i'th key is.
+        while (i != x.left.size + 1)
+        {
+            if (i <= x.left.size)
+                x = x.left;
+
+            else
+            {
+                i -= x.left.size + 1;
+                x = x.right;
+            }
+        }
+
+        return x;
+    }
+
+    /**
+     * The function counts the keys in the tree which are smaller than key.
+     *
+     * @param: key, the key to compare with.
+     * @return: Returns the number of keys in the tree that are smaller than key.
+     */
+    public int countLessThan(T key)
+    {
+        RedBlackNode<T> x = root;
+        int count = 0;
+
+        while (!isNil(x))
+        {
+            // If key <= x.key, all the smaller keys are in x's left subtree.
+            if (compare(key, x.key) <= 0)
+                x = x.left;
+
+            // Else x and its left subtree are smaller than key.
+            else
+            {
+                count += x.left.size + 1;
+                x = x.right;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * The function finds the rank of a key, based on OS-Rank in the course book.
+     *
+     * @param: key, the key we want to find.
+     * @return: Returns the position of key in the sorted order of the tree (1 for the minimum), or -1 if key is not in the tree.
+     *          If key appears more than once, the position of the first one is returned.
+     */
+    public int rank(T key)
+    {
+        int count = countLessThan(key);
+
+        // The key is in the tree only if the next key after the smaller ones is equal to it.
+        if (count < root.size && compare(key, select(count + 1)) == 0)
+            return count + 1;
+
+        return -1;
+    }
+
+    /**
+     * The function returns the smallest keys in the tree, sorted.
+     * With the tree built without a maximum size this answers "k smallest" for any k.
+     *
+     * @param: j, the number of keys we want.
+     * @return: Returns a list of the j smallest keys, or all the keys if the tree has less than j.
+     */
+    public List<T> smallest(int j)
+    {
+        List<T> keys = new ArrayList<T>(Math.min(j, root.size));
+        RedBlackNode<T> x = TreeMinimum(root);
+
+        // Walk from the minimum through the successors until we have j keys.
+        while (!isNil(x) && keys.size() < j)
+        {
+            keys.add(x.key);
+            x = TreeSuccessor(x);
+        }
+
+        return keys;
+    }
+
+    /**
+     * @return: Returns an iterator over the keys of the tree, sorted. It walks from the minimum through the successors,
+     *          one key per call, and the tree must not change while it is used.
+     */
+    public Iterator<T> iterator()
+    {
+        return new Range(null, null).iterator();
+    }
+
+    /**
+     * @return: Returns a spliterator over the keys of the tree, sorted, see Range.spliterator().
+     */
+    public Spliterator<T> spliterator()
+    {
+        return new Range(null, null).spliterator();
+    }
+
+    /**
+     * @return: Returns a stream of the keys of the tree, sorted. Call parallel() on it to read the tree with all the cores.
+     */
+    public Stream<T> stream()
+    {
+        return new Range(null, null).stream();
+    }
+
+    /**
+     * @param: lo, the smallest key of the view, null for no lower bound.
+     * @param: hi, the keys of the view are smaller than hi, null for no upper bound.
+     * @return: Returns a view of the keys in [lo, hi).
+     */
+    public Range range(T lo, T hi)
+    {
+        return new Range(lo, hi);
+    }
+
+    /**
+     * @param: hi, the keys of the view are smaller than hi.
+     * @return: Returns a view of the keys smaller than hi.
+     */
+    public Range headSet(T hi)
+    {
+        return new Range(null, hi);
+    }
+
+    /**
+     * @param: lo, the smallest key of the view.
+     * @return: Returns a view of the keys which are >= lo.
+     */
+    public Range tailSet(T lo)
+    {
+        return new Range(lo, null);
+    }
+
+    /**
+     * Class Range
+     * A view of the keys of the tree in [lo, hi). It holds no keys: every time it is read, the bounds are turned into ranks
+     * with countLessThan in O(log n), so it reads the tree as it is at that time and starts right at the first key.
+     */
+    public class Range implements Iterable<T>
+    {
+        private final T lo;     // The smallest key, null for no lower bound.
+        private final T hi;     // The bound above the keys, null for no upper bound.
+
+        private Range(T lo, T hi)
+        {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        /**
+         * @return: Returns the count of keys in the view, in O(log n).
+         */
+        public int size()
+        {
+            return Math.max(0, to() - from());
+        }
+
+        /**
+         * @return: Returns an iterator over the keys of the view, sorted.
+         */
+        public Iterator<T> iterator()
+        {
+            return Spliterators.iterator(spliterator());
+        }
+
+        /**
+         * The spliterator splits by rank: the first half of its ranks goes to the new spliterator, and this one goes on
+         * from the node of the middle rank, found with select in O(log n). Each half then walks its keys through the successors.
+         *
+         * @return: Returns a spliterator over the keys of the view, sorted.
+         */
+        public Spliterator<T> spliterator()
+        {
+            int from = from();
+            return new KeySpliterator(from, Math.max(from, to()), null);
+        }
+
+        /**
+         * @return: Returns a stream of the keys of the view, sorted.
+         */
+        public Stream<T> stream()
+        {
+            return StreamSupport.stream(spliterator(), false);
+        }
+
+        /**
+         * @return: Returns the rank of the first key of the view, counted from 0.
+         */
+        private int from()
+        {
+            return lo == null ? 0 : countLessThan(lo);
+        }
+
+        /**
+         * @return: Returns the rank after the last key of the view, counted from 0.
+         */
+        private int to()
+        {
+            return hi == null ? root.size : countLessThan(hi);
+        }
+    }
+
+    /**
+     * Class KeySpliterator
+     * The keys with ranks in [from, to), counted from 0.
+     */
+    private class KeySpliterator implements Spliterator<T>
+    {
+        private int from;               // The rank of the next key.
+        private final int to;           // The rank after the last key.
+        private RedBlackNode<T> next;   // The node of the next key, null until it is needed.
+
+        KeySpliterator(int from, int to, RedBlackNode<T> next)
+        {
+            this.from = from;
+            this.to = to;
+            this.next = next;
+        }
+
+        public boolean tryAdvance(Consumer<? super T> action)
+        {
+            if (from >= to)
+                return false;
+
+            if (next == null)
+                next = selectNode(from + 1);
+
+            action.accept(next.key);
+            next = TreeSuccessor(next);
+            from++;
+            return true;
+        }
+
+        public Spliterator<T> trySplit()
+        {
+            int mid = (from + to) >>> 1;
+
+            if (mid == from)
+                return null;
+
+            // The first half keeps the node we already have, this one finds its first node when it is read.
+            Spliterator<T> first = new KeySpliterator(from, mid, next);
+            from = mid;
+            next = null;
+            return first;
+        }
+
+        public long estimateSize()
+        {
+            return to - from;
+        }
+
+        public int characteristics()
+        {
+            return ORDERED | SORTED | SIZED | SUBSIZED | NONNULL;
+        }
+
+        public Comparator<? super T> getComparator()
+        {
+            // The keys are sorted by their natural order.
+            return null;
+        }
+    }
+
+    /**
+     * The function copies the keys of the tree into dest in sorted order, without any string work.
+     *
+     * @param: dest, the array to fill, only its first dest.length keys are copied if the tree is bigger.
+     * @return: Returns the number of keys copied.
+     */
+    public int snapshot(T [] dest)
+    {
+        RedBlackNode<T> x = TreeMinimum(root);
+        int count = 0;
+
+        while (!isNil(x) && count < dest.length)
+        {
+            dest[count++] = x.key;
+            x = TreeSuccessor(x);
+        }
+
+        return count;
+    }
+
+    /**
+     * The function makes an immutable copy of the keys for lookups, laid out in arrays instead of nodes (see FrozenRedBlackTree).
+     * The copy does not see later changes to the tree, so freeze again after a batch of inserts.
+     *
+     * @return: Returns the frozen copy of the tree.
+     */
+    public FrozenRedBlackTree<T> freeze()
+    {
+        @SuppressWarnings("unchecked")
+        T [] keys = (T []) new Comparable<?> [root.size];
+
+        snapshot(keys);
+        return new FrozenRedBlackTree<T>(keys);
+    }
+
+    /**
+     * The same as snapshot, for a reader that holds no lock while the tree may change (see ConcurrentRedBlackTree).
+     * Such a reader can see pointers in the middle of a rotation, so every step is counted, and the walk gives up
+     * after more steps than a walk over a valid tree could take. The caller must check that the tree did not change.
+     *
+     * @param: dest, the array to fill.
+     * @return: Returns the number of keys copied, or -1 if the walk gave up.
+     */
+    int snapshotUnlocked(T [] dest)
+    {
+        int steps = 2 * dest.length + MAX_PATH_STEPS;
+        RedBlackNode<T> x = root;
+        RedBlackNode<T> y;
+        int count = 0;
+
+        // Go down to the minimum.
+        while (!isNil(x.left) && --steps > 0)
+            x = x.left;
+
+        while (!isNil(x) && count < dest.length && steps > 0)
+        {
+            dest[count++] = x.key;
+
+            // TreeSuccessor, one counted step at a time.
+            if (!isNil(x.right))
+            {
+                x = x.right;
+
+                while (!isNil(x.left) && --steps > 0)
+                    x = x.left;
+            }
+
+            else
+            {
+                y = x.parent;
+
+                while (!isNil(y) && x == y.right && --steps > 0)
+                {
+                    x = y;
+                    y = y.parent;
+                }
+
+                x = y;
+            }
+
+            steps--;
+        }
+
+        return steps > 0 ? count : -1;
+    }
+
+    /**
+     * The function finds the minimum key like TreeMinimum, for a reader that holds no lock, see snapshotUnlocked.
+     *
+     * @return: Returns the minimum key, null if the tree is empty or the walk gave up.
+     */
+    T minimumUnlocked()
+    {
+        RedBlackNode<T> x = root;
+
+        for (int steps = MAX_PATH_STEPS; !isNil(x.left); x = x.left)
+        {
+            if (--steps == 0)
+                return null;
+        }
+
+        return x.key;
+    }
+
+    /**
+     * @return: Returns the maximum key from the cached maximum node, null if the tree is empty.
+     */
+    T maximumKey()
+    {
+        return max.key;
+    }
+
+    /** 
+     * The function prints the tree with one write to System.out.
+     * The keys are written into a buffer that is kept for the next print.
+     */
+    public void printkMin()
+    {   
+       if (buffer == null)
+           buffer = new StringBuilder();
+
+       buffer.setLength(0);
+       printkMin(buffer);
+       System.out.print(buffer);
+    }
+
+    /** 
+     * The Algorithm is based on the one in page 214 in the course book.
+     * This function overloads the printkMin() function.
+     * Instead of recursion, it walks from the minimum through the successors, so it needs no stack.
+     * The Algorithm writes the tree that contains the smallest k values.
+     *
+     * @param: out, where the keys are written.
+     */
+    public void printkMin(StringBuilder out)
+    {   
+       for (RedBlackNode<T> x = TreeMinimum(root); !isNil(x); x = TreeSuccessor(x))
+            out.append(x.key).append(' ');
+    }
+
+    /** 
+     * The same as printkMin(StringBuilder), for any Appendable.
+     *
+     * @param: out, where the keys are written.
+     */
+    public void printkMin(Appendable out) throws IOException
+    {   
+       for (RedBlackNode<T> x = TreeMinimum(root); !isNil(x); x = TreeSuccessor(x))
+            out.append(String.valueOf(x.key)).append(' ');
+    }
+}
@@ -0,0 +1,130 @@
+package maman16;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Class RedBlackTreeMonitor
+ * The MBean that shows the counters of one RedBlackTree through JMX (for example in jconsole).
+ * The attributes are read from a RedBlackTreeStats that is taken again at most once a second, since measuring the
+ * height takes O(n) and a JMX console reads all the attributes together.
+ * The counters are read without a lock while the tree changes, so they can be a little behind. The walks that measure
+ * the heights are bounded, so links seen in the middle of a rotation cannot make them run forever, and a height that
+ * could not be measured is shown as -1 until the next refresh.
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+public class RedBlackTreeMonitor implements RedBlackTreeMonitorMBean
+{
+    private static final long REFRESH_NANOS = 1000000000L;     // Take new stats at most once a second.
+
+    private final RedBlackTree<?> rbt;      // The tree.
+    private RedBlackTreeStats last;         // The last stats taken.
+    private long lastTime;                  // The time the last stats were taken, in nanoseconds.
+
+    // Constructor.
+    public RedBlackTreeMonitor(RedBlackTree<?> rbt)
+    {
+        this.rbt = rbt;
+    }
+
+    /**
+     * The function registers a monitor of the tree in the platform MBean server.
+     *
+     * @param: rbt, the tree.
+     * @param: name, the name of the tree, it is shown as maman16:type=RedBlackTree,name=<name>.
+     * @return: Returns the name the monitor was registered with.
+     */
+    public static ObjectName register(RedBlackTree<?> rbt, String name) throws JMException
+    {
+        ObjectName objectName = new ObjectName("maman16:type=RedBlackTree,name=" + ObjectName.quote(name));
+
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new RedBlackTreeMonitor(rbt), objectName);
+        return objectName;
+    }
+
+    /**
+     * @return: Returns the stats of the tree, taken again if the last ones are older than a second.
+     */
+    private synchronized RedBlackTreeStats stats()
+    {
+        long now = System.nanoTime();
+
+        if (last == null || now - lastTime >= REFRESH_NANOS)
+        {
+            last = rbt.stats();
+            lastTime = now;
+        }
+
+        return last;
+    }
+
+    public int getSize()
+    {
+        return stats().getSize();
+    }
+
+    public int getHeight()
+    {
+        return stats().getHeight();
+    }
+
+    public int getBlackHeight()
+    {
+        return stats().getBlackHeight();
+    }
+
+    public long getInserts()
+    {
+        return stats().getInserts();
+    }
+
+    public long getRejections()
+    {
+        return stats().getRejections();
+    }
+
+    public double getRejectionRate()
+    {
+        return stats().getRejectionRate();
+    }
+
+    public long getComparisons()
+    {
+        return stats().getComparisons();
+    }
+
+    public double getComparisonsPerInsert()
+    {
+        return stats().getComparisonsPerInsert();
+    }
+
+    public long getLeftRotations()
+    {
+        return stats().getLeftRotations();
+    }
+
+    public long getRightRotations()
+    {
+        return stats().getRightRotations();
+    }
+
+    public long getInsertFixupLoops()
+    {
+        return stats().getInsertFixupLoops();
+    }
+
+    public long getRemoveFixupLoops()
+    {
+        return stats().getRemoveFixupLoops();
+    }
+
+    public synchronized void resetStats()
+    {
+        rbt.resetStats();
+        last = null;
+    }
+}
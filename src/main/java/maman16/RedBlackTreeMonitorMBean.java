@@ -0,0 +1,37 @@
+package maman16;
+
+/**
+ * Interface RedBlackTreeMonitorMBean
+ * The attributes of a RedBlackTree that are shown through JMX, see RedBlackTreeStats for their meaning.
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+public interface RedBlackTreeMonitorMBean
+{
+    int getSize();
+
+    int getHeight();
+
+    int getBlackHeight();
+
+    long getInserts();
+
+    long getRejections();
+
+    double getRejectionRate();
+
+    long getComparisons();
+
+    double getComparisonsPerInsert();
+
+    long getLeftRotations();
+
+    long getRightRotations();
+
+    long getInsertFixupLoops();
+
+    long getRemoveFixupLoops();
+
+    void resetStats();
+}
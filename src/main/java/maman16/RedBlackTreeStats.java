@@ -0,0 +1,114 @@
+package maman16;
+
+/**
+ * Class RedBlackTreeStats
+ * A copy of the counters of a RedBlackTree at one moment, with its size, height and black height.
+ * The counters are kept only when the program runs with -Dmaman16.stats=true, otherwise they are all 0.
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+public class RedBlackTreeStats
+{
+    private final int size;                 // The size of the tree.
+    private final int height;               // The count of nodes on the longest path from the root down, -1 if unknown.
+    private final int blackHeight;          // The count of black nodes on any path from the root down, -1 if unknown.
+    private final long inserts;             // Calls to Insert(key).
+    private final long rejections;          // Calls to Insert(key) on a full tree that did not keep the key.
+    private final long comparisons;         // Calls to compareTo.
+    private final long leftRotations;       // Calls to leftRotate.
+    private final long rightRotations;      // Calls to rightRotate.
+    private final long insertFixupLoops;    // Rounds of the loop in InsertFixup.
+    private final long removeFixupLoops;    // Rounds of the loop in RemoveFixup.
+
+    // Constructor.
+    RedBlackTreeStats(int size, int height, int blackHeight, long inserts, long rejections, long comparisons,
+                      long leftRotations, long rightRotations, long insertFixupLoops, long removeFixupLoops)
+    {
+        this.size = size;
+        this.height = height;
+        this.blackHeight = blackHeight;
+        this.inserts = inserts;
+        this.rejections = rejections;
+        this.comparisons = comparisons;
+        this.leftRotations = leftRotations;
+        this.rightRotations = rightRotations;
+        this.insertFixupLoops = insertFixupLoops;
+        this.removeFixupLoops = removeFixupLoops;
+    }
+
+    public int getSize()
+    {
+        return size;
+    }
+
+    public int getHeight()
+    {
+        return height;
+    }
+
+    public int getBlackHeight()
+    {
+        return blackHeight;
+    }
+
+    public long getInserts()
+    {
+        return inserts;
+    }
+
+    public long getRejections()
+    {
+        return rejections;
+    }
+
+    /**
+     * @return: Returns the part of the inserts (0 to 1) that were rejected, 0 if there were no inserts.
+     */
+    public double getRejectionRate()
+    {
+        return inserts == 0 ? 0 : (double) rejections / inserts;
+    }
+
+    public long getComparisons()
+    {
+        return comparisons;
+    }
+
+    /**
+     * @return: Returns the average count of comparisons in one insert, 0 if there were no inserts.
+     */
+    public double getComparisonsPerInsert()
+    {
+        return inserts == 0 ? 0 : (double) comparisons / inserts;
+    }
+
+    public long getLeftRotations()
+    {
+        return leftRotations;
+    }
+
+    public long getRightRotations()
+    {
+        return rightRotations;
+    }
+
+    public long getInsertFixupLoops()
+    {
+        return insertFixupLoops;
+    }
+
+    public long getRemoveFixupLoops()
+    {
+        return removeFixupLoops;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "size=" + size + " height=" + height + " blackHeight=" + blackHeight
+             + " inserts=" + inserts + " rejections=" + rejections + " comparisons=" + comparisons
+             + " leftRotations=" + leftRotations + " rightRotations=" + rightRotations
+             + " insertFixupLoops=" + insertFixupLoops + " removeFixupLoops=" + removeFixupLoops;
+    }
+}
@@ -0,0 +1,127 @@
+package maman16;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * Class SlidingWindowKSmallest
+ * This class finds the smallest k keys among the last keys of a stream: the last maxCount keys, the keys of the
+ * last maxAge milliseconds, or both. It keeps the whole window in one RedBlackTree without a maximum size,
+ * so when a key leaves the window it is deleted from the tree in O(log n), and the next smallest keys are
+ * already in the tree to take its place. The keys are also kept in a queue in the order they came, to know
+ * which key leaves next.
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+public class SlidingWindowKSmallest<T extends Comparable<T>>
+{
+    /**
+     * Class Entry
+     * A key in the window and the time it came.
+     */
+    private static class Entry<T>
+    {
+        final T key;
+        final long time;
+
+        Entry(T key, long time)
+        {
+            this.key = key;
+            this.time = time;
+        }
+    }
+
+    private final int k;                        // The count of smallest keys we want.
+    private final int maxCount;                 // The count of keys in the window, 0 for no limit.
+    private final long maxAge;                  // The age in milliseconds of the oldest key in the window, 0 for no limit.
+    private final RedBlackTree<T> rbt;          // All the keys in the window.
+    private final ArrayDeque<Entry<T>> window;  // All the keys in the window, the oldest first.
+
+    /**
+     * Constructor which sets k and the size of the window.
+     *
+     * @param: k, number.
+     * @param: maxCount, keep only the last maxCount keys, 0 for no limit.
+     * @param: maxAge, keep only the keys of the last maxAge milliseconds, 0 for no limit.
+     */
+    public SlidingWindowKSmallest(int k, int maxCount, long maxAge)
+    {
+        this.k = k;
+        this.maxCount = maxCount;
+        this.maxAge = maxAge;
+        rbt = new RedBlackTree<T>();
+        window = new ArrayDeque<Entry<T>>();
+    }
+
+    /**
+     * The function adds a key that came now.
+     *
+     * @param: key, the key.
+     */
+    public void Insert(T key)
+    {
+        Insert(key, System.currentTimeMillis());
+    }
+
+    /**
+     * The function adds a key that came at the given time, the times must not go down.
+     *
+     * @param: key, the key.
+     * @param: time, the time the key came, in milliseconds.
+     */
+    public void Insert(T key, long time)
+    {
+        window.addLast(new Entry<T>(key, time));
+        rbt.Insert(key);
+
+        // If the window has too many keys, the oldest one leaves.
+        if (maxCount > 0 && window.size() > maxCount)
+            rbt.delete(window.removeFirst().key);
+
+        expire(time);
+    }
+
+    /**
+     * The function deletes the keys that are too old.
+     *
+     * @param: now, the time now, in milliseconds.
+     */
+    public void expire(long now)
+    {
+        if (maxAge <= 0)
+            return;
+
+        while (!window.isEmpty() && now - window.peekFirst().time >= maxAge)
+            rbt.delete(window.removeFirst().key);
+    }
+
+    /**
+     * @return: Returns the count of keys in the window.
+     */
+    public int size()
+    {
+        return window.size();
+    }
+
+    /**
+     * @return: Returns the smallest k keys in the window, sorted.
+     */
+    public List<T> smallest()
+    {
+        return rbt.smallest(k);
+    }
+
+    /**
+     * The function prints the smallest k keys in the window, sorted.
+     */
+    public void printkMin()
+    {
+        StringBuilder buffer = new StringBuilder();
+
+        for (T key : smallest())
+            buffer.append(key).append(' ');
+
+        System.out.print(buffer);
+    }
+}
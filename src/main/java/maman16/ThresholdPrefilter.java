@@ -0,0 +1,64 @@
+package maman16;
+
+/**
+ * Class ThresholdPrefilter
+ * Once a TopK structure is full, almost every number of a big input is rejected by Insert with one compare against
+ * the threshold (the maximum of the tree). This class does those compares ahead of Insert, one chunk at a time and
+ * without a branch: every number of the chunk is written to the end of a candidate array, and the end moves forward
+ * only if the number is smaller than the threshold. Then only the candidates are given to Insert, and the threshold,
+ * which only goes down, is read again for the next chunk.
+ *
+ * A number that passes against the older threshold of its chunk may still be rejected by Insert, so the result is
+ * the same as inserting every number. The loop has no branch to predict and no call, so on a full structure it runs
+ * at about the speed of reading the array.
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+public class ThresholdPrefilter
+{
+    // GLOBAL VARIABLES.
+    private static final int CHUNK_SIZE = 1 << 10;      // The count of numbers compared before the threshold is read again.
+
+    private final int [] candidates;    // The numbers of the chunk that passed the threshold.
+
+    // Default Constructor.
+    public ThresholdPrefilter()
+    {
+        candidates = new int [CHUNK_SIZE];
+    }
+
+    /**
+     * The function gives the numbers array[from .. to-1] to the structure, and skips the ones it would reject.
+     * The numbers are checked with topK.checkKeys first, so an invalid number throws before any number is inserted.
+     *
+     * @param: topK, the structure.
+     * @param: array, the numbers.
+     * @param: from, the index of the first number.
+     * @param: to, the index after the last number.
+     */
+    public void InsertAll(TopK topK, int [] array, int from, int to)
+    {
+        topK.checkKeys(array, from, to);
+
+        for (int start = from; start < to; start += CHUNK_SIZE)
+        {
+            int end = Math.min(to, start + CHUNK_SIZE);
+            int n = 0;
+
+            // The threshold is kept between the smallest int and 2^31, so key - limit fits in a long,
+            // and its sign bit is 1 exactly when key < limit.
+            long limit = Math.max(Math.min(topK.threshold(), 1L << 31), Integer.MIN_VALUE);
+
+            for (int i = start; i < end; i++)
+            {
+                int key = array[i];
+                candidates[n] = key;
+                n += (int) ((key - limit) >>> 63);
+            }
+
+            for (int i = 0; i < n; i++)
+                topK.Insert(candidates[i]);
+        }
+    }
+}
@@ -0,0 +1,429 @@
+package maman16;
+
+import java.util.ArrayDeque;
+
+/**
+ * Class TopDownRedBlackTree
+ * A bounded tree of the smallest k keys, like RedBlackTree, whose nodes hold no parent and keep the color in a boolean.
+ * Insert and delete are top-down (Guibas and Sedgewick, as written by Julienne Walker): the colors are fixed on the one
+ * way down, with rotations around the nodes just passed, so there is no way back up and no parent link is needed.
+ * A node is a key, two children and a boolean, and a rotation writes only the links of the nodes it turns.
+ *
+ * The walks go down from a false root (head) whose right child is the root, so the root is turned like any other node.
+ * The maximum key is cached like in RedBlackTree, so a key which is not smaller than it is rejected with a single compare.
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+public class TopDownRedBlackTree<T extends Comparable<T>>
+{
+    private static final int LEFT = 0;
+    private static final int RIGHT = 1;
+
+    /**
+     * Class Node
+     * A node without a parent.
+     */
+    private static final class Node<T>
+    {
+        T key;
+        Node<T> left;
+        Node<T> right;
+        boolean red;
+
+        Node(T key)
+        {
+            this.key = key;
+            this.red = true;
+        }
+
+        // The child in the direction dir, LEFT or RIGHT.
+        Node<T> child(int dir)
+        {
+            return dir == LEFT ? left : right;
+        }
+
+        void setChild(int dir, Node<T> x)
+        {
+            if (dir == LEFT)
+                left = x;
+
+            else
+                right = x;
+        }
+    }
+
+    private final Node<T> head = new Node<T>(null);    // The false root, the root is its right child.
+    private Node<T> max;            // The node holding the maximum key, null while the tree is empty.
+
+    public int k;                   // The maximum size of the tree.
+    public int currSize;            // The current size of the tree.
+
+    private StringBuilder buffer;   // The buffer of printkMin(), kept for the next print.
+
+    // Default Constructor.
+    public TopDownRedBlackTree(int k)
+    {
+        this.k = k;
+        currSize = 0;
+    }
+
+    // Constructor for a tree without a maximum size.
+    public TopDownRedBlackTree()
+    {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param: x, a node or null.
+     * @return: Returns true if x is red, null is black.
+     */
+    private static boolean isRed(Node<?> x)
+    {
+        return x != null && x.red;
+    }
+
+    /**
+     * The function turns x in the direction dir: the child on the other side takes its place, colored black, and x becomes red.
+     *
+     * @param: x, the node.
+     * @param: dir, LEFT or RIGHT.
+     * @return: Returns the new root of the subtree.
+     */
+    private static <T> Node<T> single(Node<T> x, int dir)
+    {
+        Node<T> y = x.child(1 - dir);
+
+        x.setChild(1 - dir, y.child(dir));
+        y.setChild(dir, x);
+        x.red = true;
+        y.red = false;
+        return y;
+    }
+
+    /**
+     * The function turns the child of x on the other side against dir, and then x in the direction dir.
+     *
+     * @param: x, the node.
+     * @param: dir, LEFT or RIGHT.
+     * @return: Returns the new root of the subtree.
+     */
+    private static <T> Node<T> twice(Node<T> x, int dir)
+    {
+        x.setChild(1 - dir, single(x.child(1 - dir), 1 - dir));
+        return single(x, dir);
+    }
+
+    /**
+     * The function inserts a key. Once the tree is full, a key which is not smaller than the maximum is rejected,
+     * and an accepted key reuses the node of the evicted maximum.
+     *
+     * @param: key, the key you want to insert to the tree.
+     */
+    public void Insert(T key)
+    {
+        Node<T> z;
+
+        // If the tree is full (current size = k).
+        if (currSize == k)
+        {
+            // If the key is not smaller then the maximum, we don't insert it.
+            if (max == null || key.compareTo(max.key) >= 0)
+                return;
+
+            // Else, we delete the maximum and reuse its node for the new key.
+            z = remove(null);
+            z.key = key;
+        }
+
+        else
+            z = new Node<T>(key);
+
+        insert(z);
+        currSize++;
+    }
+
+    /**
+     * The top-down insert. On the way down, a black node with two red children is flipped to red with black children,
+     * and when that leaves two reds in a row, one or two rotations around the grandparent fix it. Equal keys go right.
+     *
+     * @param: z, a node that is not in the tree.
+     */
+    private void insert(Node<T> z)
+    {
+        Node<T> t = head;           // The great-grandparent.
+        Node<T> g = null;           // The grandparent.
+        Node<T> p = null;           // The parent.
+        Node<T> q = head.right;     // The current node.
+        int dir = RIGHT;
+        int last = RIGHT;
+
+        z.left = null;
+        z.right = null;
+        z.red = true;
+
+        // Equal keys go right, so z is the new maximum when it is not smaller than the old one.
+        if (max == null || z.key.compareTo(max.key) >= 0)
+            max = z;
+
+        if (q == null)
+        {
+            head.right = z;
+            z.red = false;
+            return;
+        }
+
+        while (true)
+        {
+            // Hang z at the bottom.
+            if (q == null)
+                p.setChild(dir, q = z);
+
+            // Color flip.
+            else if (isRed(q.left) && isRed(q.right))
+            {
+                q.red = true;
+                q.left.red = false;
+                q.right.red = false;
+            }
+
+            // Two reds in a row, rotate around the grandparent.
+            if (isRed(q) && isRed(p))
+            {
+                int dir2 = t.right == g ? RIGHT : LEFT;
+
+                if (q == p.child(last))
+                    t.setChild(dir2, single(g, 1 - last));
+
+                else
+                    t.setChild(dir2, twice(g, 1 - last));
+            }
+
+            if (q == z)
+                break;
+
+            last = dir;
+            dir = z.key.compareTo(q.key) < 0 ? LEFT : RIGHT;
+
+            if (g != null)
+                t = g;
+
+            g = p;
+            p = q;
+            q = q.child(dir);
+        }
+
+        // Color root black at all times.
+        head.right.red = false;
+    }
+
+    /**
+     * The function deletes one copy of a key from the tree.
+     *
+     * @param: key, the key we want to delete.
+     * @return: Returns true if the key was in the tree, false otherwise.
+     */
+    public boolean delete(T key)
+    {
+        if (remove(key) == null)
+            return false;
+
+        // The key of the removed node may have been moved into another node, so find the maximum again.
+        max = head.right;
+
+        while (max != null && max.right != null)
+            max = max.right;
+
+        return true;
+    }
+
+    /**
+     * The top-down delete. On the way down, the current node is made red (by a color flip with its sibling, or by
+     * rotations), so at the bottom a red node can be taken out without breaking the black heights. The node with the
+     * key gets the key of the bottom node, its predecessor, and the bottom node is taken out instead.
+     *
+     * @param: key, the key we want to delete, or null for the maximum.
+     * @return: Returns the node that left the tree, or null if the key is not in the tree.
+     */
+    private Node<T> remove(T key)
+    {
+        Node<T> g = null;           // The grandparent.
+        Node<T> p = null;           // The parent.
+        Node<T> q = head;           // The current node.
+        Node<T> f = null;           // The node with the key.
+        int dir = RIGHT;
+
+        if (head.right == null)
+            return null;
+
+        while (q.child(dir) != null)
+        {
+            int last = dir;
+            int c;
+
+            g = p;
+            p = q;
+            q = q.child(dir);
+
+            // The maximum is found by going right all the way down.
+            c = key == null ? 1 : key.compareTo(q.key);
+            dir = c > 0 ? RIGHT : LEFT;
+
+            if (c == 0)
+                f = q;
+
+            // Push the red node down.
+            if (!isRed(q) && !isRed(q.child(dir)))
+            {
+                if (isRed(q.child(1 - dir)))
+                {
+                    Node<T> x = single(q, dir);
+                    p.setChild(last, x);
+                    p = x;
+                }
+
+                else
+                {
+                    Node<T> s = p.child(1 - last);
+
+                    if (s != null)
+                    {
+                        // Color flip.
+                        if (!isRed(s.child(1 - last)) && !isRed(s.child(last)))
+                        {
+                            p.red = false;
+                            s.red = true;
+                            q.red = true;
+                        }
+
+                        else
+                        {
+                            int dir2 = g.right == p ? RIGHT : LEFT;
+
+                            if (isRed(s.child(last)))
+                                g.setChild(dir2, twice(p, last));
+
+                            else
+                                g.setChild(dir2, single(p, last));
+
+                            // Make sure the colors are right.
+                            q.red = true;
+                            g.child(dir2).red = true;
+                            g.child(dir2).left.red = false;
+                            g.child(dir2).right.red = false;
+                        }
+                    }
+                }
+            }
+        }
+
+        // The bottom node q is the maximum itself.
+        if (key == null)
+            f = q;
+
+        // Move the key of q into f, and take q out.
+        if (f != null)
+        {
+            f.key = q.key;
+            p.setChild(p.right == q ? RIGHT : LEFT, q.left == null ? q.right : q.left);
+            currSize--;
+
+            // The maximum has no right child, so the new maximum is the maximum of its left subtree, or its parent.
+            if (key == null)
+            {
+                max = q.left != null ? q.left : (p == head ? null : p);
+
+                while (max != null && max.right != null)
+                    max = max.right;
+            }
+        }
+
+        if (head.right != null)
+            head.right.red = false;
+
+        return f == null ? null : q;
+    }
+
+    /**
+     * @return: Returns the current size of the tree.
+     */
+    public int size()
+    {
+        return currSize;
+    }
+
+    /**
+     * @return: Returns the maximum key, null if the tree is empty.
+     */
+    public T maximum()
+    {
+        return max == null ? null : max.key;
+    }
+
+    /**
+     * The function copies the keys of the tree into dest in sorted order, with a stack since there are no parent pointers.
+     *
+     * @param: dest, the array to fill, only its first dest.length keys are copied if the tree is bigger.
+     * @return: Returns the number of keys copied.
+     */
+    public int snapshot(T [] dest)
+    {
+        ArrayDeque<Node<T>> stack = new ArrayDeque<Node<T>>();
+        Node<T> x = head.right;
+        int count = 0;
+
+        while ((x != null || !stack.isEmpty()) && count < dest.length)
+        {
+            while (x != null)
+            {
+                stack.push(x);
+                x = x.left;
+            }
+
+            x = stack.pop();
+            dest[count++] = x.key;
+            x = x.right;
+        }
+
+        return count;
+    }
+
+    /**
+     * The function prints the tree with one write to System.out.
+     * The keys are written into a buffer that is kept for the next print.
+     */
+    public void printkMin()
+    {
+        if (buffer == null)
+            buffer = new StringBuilder();
+
+        buffer.setLength(0);
+        printkMin(buffer);
+        System.out.print(buffer);
+    }
+
+    /**
+     * The function writes the keys of the tree, sorted.
+     *
+     * @param: out, where the keys are written.
+     */
+    public void printkMin(StringBuilder out)
+    {
+        ArrayDeque<Node<T>> stack = new ArrayDeque<Node<T>>();
+        Node<T> x = head.right;
+
+        // In-order walk with a stack, since there are no parent pointers.
+        while (x != null || !stack.isEmpty())
+        {
+            while (x != null)
+            {
+                stack.push(x);
+                x = x.left;
+            }
+
+            x = stack.pop();
+            out.append(x.key).append(' ');
+            x = x.right;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package maman16;
+
+/**
+ * Interface TopK
+ * The operations of a structure that keeps the smallest k numbers it was given.
+ * The callers only use these operations, so the structure behind them can be chosen by TopKSelector.
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+public interface TopK
+{
+    /**
+     * The function gives the structure the next number, it is kept only if it is one of the smallest k so far.
+     *
+     * @param: key, the number.
+     */
+    void Insert(int key);
+
+    /**
+     * @return: Returns how many numbers are kept, at most k.
+     */
+    int size();
+
+    /**
+     * @return: Returns the threshold: Insert keeps no number which is not smaller than it, Long.MAX_VALUE while every
+     *          number is kept. The threshold never goes up, so a number that is not smaller than it can be thrown away
+     *          without calling Insert.
+     */
+    long threshold();
+
+    /**
+     * The function empties the structure, and keeps its memory for the numbers that come next,
+     * so one structure can be used for many inputs (see KSmallestBenchmark).
+     */
+    void clear();
+
+    /**
+     * The function checks numbers that are given to the structure together (see ThresholdPrefilter), before any of
+     * them is compared with the threshold. It throws for a number that Insert would throw for, so such a number
+     * fails even when the threshold would skip it. By default every number is valid.
+     *
+     * @param: array, the numbers.
+     * @param: from, the index of the first number.
+     * @param: to, the index after the last number.
+     */
+    default void checkKeys(int [] array, int from, int to)
+    {
+    }
+
+    /**
+     * The function copies the kept numbers into dest in sorted order.
+     *
+     * @param: dest, the array to fill, only its first dest.length numbers are copied if there are more.
+     * @return: Returns the number of numbers copied.
+     */
+    int snapshot(int [] dest);
+}
@@ -0,0 +1,151 @@
+package maman16;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Class TopKClient
+ * A connection to a TopKServer on localhost. The inserts are only written to a buffer, which is sent when it fills
+ * or when the client waits for an answer (query, drop or close), so many inserts take few packets.
+ * A client is used by one thread at a time.
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+public class TopKClient implements Closeable
+{
+    private final Socket socket;
+    private final BufferedReader in;
+    private final BufferedWriter out;
+
+    /**
+     * Constructor which connects to the server on localhost.
+     *
+     * @param: port, the port of the server.
+     */
+    public TopKClient(int port) throws IOException
+    {
+        socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        socket.setTcpNoDelay(true);
+        in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * The function gives keys to a stream.
+     *
+     * @param: id, the stream, without spaces.
+     * @param: keys, the keys.
+     */
+    public void insert(String id, int... keys) throws IOException
+    {
+        insert(id, keys, 0, keys.length);
+    }
+
+    /**
+     * The function gives the keys array[from .. to-1] to a stream, in one line.
+     *
+     * @param: id, the stream, without spaces.
+     * @param: array, the keys.
+     * @param: from, the index of the first key.
+     * @param: to, the index after the last key.
+     */
+    public void insert(String id, int [] array, int from, int to) throws IOException
+    {
+        if (from >= to)
+            return;
+
+        out.write("INSERT ");
+        out.write(id);
+
+        for (int i = from; i < to; i++)
+        {
+            out.write(' ');
+            out.write(Integer.toString(array[i]));
+        }
+
+        out.write('\n');
+    }
+
+    /**
+     * The function asks for the smallest keys of a stream. The server handles the inserts of this client before.
+     *
+     * @param: id, the stream.
+     * @return: Returns the smallest keys of the stream, sorted, an empty array if the stream is not known.
+     */
+    public int [] query(String id) throws IOException
+    {
+        String [] words = request("QUERY " + id).split(" ");
+        int [] keys = new int [Integer.parseInt(words[1])];
+
+        for (int i = 0; i < keys.length; i++)
+            keys[i] = Integer.parseInt(words[i + 2]);
+
+        return keys;
+    }
+
+    /**
+     * The function makes the server forget a stream.
+     *
+     * @param: id, the stream.
+     */
+    public void drop(String id) throws IOException
+    {
+        request("DROP " + id);
+    }
+
+    /**
+     * The function sends QUIT and closes the connection.
+     */
+    public void close() throws IOException
+    {
+        try
+        {
+            out.write("QUIT\n");
+            out.flush();
+        }
+        finally
+        {
+            socket.close();
+        }
+    }
+
+    /**
+     * The function sends a line and reads the answer.
+     * An ERR answer to an earlier insert comes before the answer of this line, so it is thrown here,
+     * after the answer of this line is read too.
+     *
+     * @param: line, the line.
+     * @return: Returns the answer, it starts with "OK".
+     */
+    private String request(String line) throws IOException
+    {
+        String error = null;
+        String answer;
+
+        out.write(line);
+        out.write('\n');
+        out.flush();
+
+        while ((answer = in.readLine()) != null && !answer.startsWith("OK"))
+        {
+            if (error == null)
+                error = answer;
+        }
+
+        if (answer == null)
+            throw new IOException("the server closed the connection");
+
+        if (error != null)
+            throw new IOException(error);
+
+        return answer;
+    }
+}
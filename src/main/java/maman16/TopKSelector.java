@@ -0,0 +1,60 @@
+package maman16;
+
+/**
+ * Class TopKSelector
+ * This class chooses the structure that keeps the smallest k numbers:
+ * - CountingTopK, when the range of the numbers is known and small.
+ * - IntRedBlackTree, when sorted check points are needed often, since it is always sorted.
+ * - HeapTopK, for a small k, since a small heap is cheap to sort at the few check points.
+ * - QuickselectTopK, when many more numbers than k are expected, since it takes O(1) per number on average.
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+public class TopKSelector
+{
+    // GLOBAL VARIABLES.
+    public static final int SMALL_K = 64;                   // Up to this k the heap is used.
+    public static final int QUICKSELECT_RATIO = 8;          // Quickselect is used if n is at least this many times k.
+    public static final int MAX_COUNTING_RANGE = 1 << 16;   // The largest range for which counting is used.
+
+    /**
+     * The function chooses the structure for numbers whose range is not known.
+     *
+     * @param: k, number.
+     * @param: expectedN, the expected count of numbers.
+     * @param: sortedCheckpoints, true if the smallest numbers are needed sorted at check points during the input.
+     * @return: Returns an empty structure for the smallest k numbers.
+     */
+    public static TopK select(int k, long expectedN, boolean sortedCheckpoints)
+    {
+        if (sortedCheckpoints)
+            return new IntRedBlackTree(k);
+
+        if (k <= SMALL_K)
+            return new HeapTopK(k);
+
+        if (expectedN >= (long) QUICKSELECT_RATIO * k)
+            return new QuickselectTopK(k);
+
+        return new IntRedBlackTree(k);
+    }
+
+    /**
+     * The function chooses the structure for numbers in the range [min, max].
+     *
+     * @param: k, number.
+     * @param: expectedN, the expected count of numbers.
+     * @param: sortedCheckpoints, true if the smallest numbers are needed sorted at check points during the input.
+     * @param: min, the smallest number that will be inserted.
+     * @param: max, the largest number that will be inserted.
+     * @return: Returns an empty structure for the smallest k numbers.
+     */
+    public static TopK select(int k, long expectedN, boolean sortedCheckpoints, int min, int max)
+    {
+        if ((long) max - min < MAX_COUNTING_RANGE)
+            return new CountingTopK(k, min, max);
+
+        return select(k, expectedN, sortedCheckpoints);
+    }
+}
@@ -0,0 +1,472 @@
+package maman16;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Class TopKServer
+ * A server on localhost that keeps the smallest k numbers of many streams, one bounded IntRedBlackTree per stream ID.
+ * Every connection is served by its own thread, a virtual thread when the JVM has them (Java 21 and up) and a thread
+ * of a cached pool otherwise, so thousands of mostly idle connections cost little.
+ *
+ * The protocol is made of lines of text, the words split by spaces:
+ * - INSERT id key key ...      Gives the keys to the stream id, which is made on its first insert. No answer.
+ * - QUERY id                   Answers "OK count key key ..." with the smallest keys of the stream, sorted.
+ * - DROP id                    Forgets the stream id, answers "OK".
+ * - QUIT                       Closes the connection.
+ * A bad line is answered with "ERR message". Since INSERT has no answer, a client can send many inserts without waiting.
+ *
+ * The keys of the inserts that a connection sends to the same stream one after the other are collected, and given to the
+ * tree together under one lock (with a ThresholdPrefilter) when the stream changes, when another command comes, when the
+ * collected keys fill the batch, or when the client has sent nothing more yet. So a busy stream changes hands between
+ * the threads once per batch and not once per key. A stream holds only its tree, which starts small and grows with its keys.
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+public class TopKServer implements Closeable
+{
+    // GLOBAL VARIABLES.
+    private static final int BATCH_SIZE = 1 << 12;     // The most keys collected before they are given to the tree.
+    private static final int MAX_ACCEPT_DELAY = 1000;   // The longest wait after a failed accept, in milliseconds.
+
+    private final int k;                                            // The maximum size of the tree of every stream.
+    private final ConcurrentHashMap<String, IntRedBlackTree> streams;   // The trees, by stream ID.
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor;                         // Runs the connections.
+    private final Set<Socket> connections;                          // The open connections, closed by close().
+
+    /**
+     * Constructor which opens the server on localhost. The connections are accepted only after start().
+     *
+     * @param: port, the port, 0 for any free port (see getPort()).
+     * @param: k, the count of smallest keys kept for every stream.
+     */
+    public TopKServer(int port, int k) throws IOException
+    {
+        if (k < 0)
+            throw new IllegalArgumentException("k must be >= 0");
+
+        this.k = k;
+        streams = new ConcurrentHashMap<String, IntRedBlackTree>();
+        serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress());
+        executor = newExecutor();
+        connections = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * The program runs a server until it is killed.
+     *
+     * @param: arg, the port and k.
+     */
+    public static void main(String arg[]) throws IOException
+    {
+        if (arg.length != 2)
+        {
+            System.err.println("Usage: TopKServer <port> <k>");
+            System.exit(2);
+        }
+
+        TopKServer server = new TopKServer(Integer.parseInt(arg[0]), Integer.parseInt(arg[1]));
+
+        // The threads of the executor are daemons, so the main thread runs the accept loop itself.
+        System.out.println("TopKServer listening on port " + server.getPort());
+        server.accept();
+    }
+
+    /**
+     * @return: Returns an executor that runs every task on a new virtual thread, or a cached pool of daemon threads
+     *          when Executors.newVirtualThreadPerTaskExecutor() is missing (before Java 21).
+     */
+    private static ExecutorService newExecutor()
+    {
+        try
+        {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException e)
+        {
+            return Executors.newCachedThreadPool(task ->
+            {
+                Thread thread = new Thread(task, "TopKServer-connection");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * @return: Returns the port of the server.
+     */
+    public int getPort()
+    {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * @return: Returns the count of streams.
+     */
+    public int streamCount()
+    {
+        return streams.size();
+    }
+
+    /**
+     * The function starts accepting connections, on a thread of the executor.
+     */
+    public void start()
+    {
+        executor.execute(this::accept);
+    }
+
+    /**
+     * The function closes the server and all its connections.
+     */
+    public void close() throws IOException
+    {
+        serverSocket.close();
+
+        for (Socket socket : connections)
+            socket.close();
+
+        executor.shutdownNow();
+    }
+
+    /**
+     * The accept loop, it gives every connection its own thread, until the server is closed.
+     * A failed accept (no file descriptors left, for example) may fail again at once, so the loop waits before it tries
+     * again, twice as long after every failure in a row, up to MAX_ACCEPT_DELAY.
+     */
+    private void accept()
+    {
+        int delay = 0;      // The wait after the last failed accept, 0 after a good one.
+
+        while (!serverSocket.isClosed())
+        {
+            try
+            {
+                Socket socket = serverSocket.accept();
+
+                delay = 0;
+                connections.add(socket);
+                executor.execute(() -> serve(socket));
+            }
+            catch (IOException e)
+            {
+                // The server socket was closed.
+                if (serverSocket.isClosed())
+                    return;
+
+                delay = Math.min(Math.max(2 * delay, 1), MAX_ACCEPT_DELAY);
+
+                try
+                {
+                    Thread.sleep(delay);
+                }
+                catch (InterruptedException interrupted)
+                {
+                    return;     // The executor was shut down.
+                }
+            }
+        }
+    }
+
+    /**
+     * The function serves one connection until the client quits or the connection is closed.
+     *
+     * @param: socket, the connection.
+     */
+    private void serve(Socket socket)
+    {
+        try (Socket s = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.US_ASCII)))
+        {
+            Connection connection = new Connection(in, out);
+            connection.run();
+        }
+        catch (IOException e)
+        {
+            // The client went away, nothing to answer.
+        }
+        finally
+        {
+            connections.remove(socket);
+        }
+    }
+
+    /**
+     * Class Connection
+     * The state of one connection: the keys collected for the stream of the last inserts.
+     */
+    private class Connection
+    {
+        private final BufferedReader in;
+        private final BufferedWriter out;
+        private final ThresholdPrefilter prefilter = new ThresholdPrefilter();
+        private final int [] batch = new int [BATCH_SIZE];     // The collected keys.
+        private int batchSize;                                  // The count of collected keys.
+        private String batchId;                                 // The stream of the collected keys, null if there are none.
+        private IntRedBlackTree batchTree;                      // The tree of batchId when the keys were collected.
+        private int [] keys = new int [16];                     // The keys of the INSERT line being read.
+
+        Connection(BufferedReader in, BufferedWriter out)
+        {
+            this.in = in;
+            this.out = out;
+        }
+
+        /**
+         * The function reads and runs the commands of the client.
+         */
+        void run() throws IOException
+        {
+            String line;
+
+            while ((line = in.readLine()) != null)
+            {
+                int end = line.indexOf(' ');
+                String command = end < 0 ? line : line.substring(0, end);
+                String id = end < 0 ? null : word(line, end + 1);
+
+                if (command.equals("INSERT") && id != null)
+                {
+                    try
+                    {
+                        insert(id, line, end + 1 + id.length());
+                    }
+                    catch (NumberFormatException e)
+                    {
+                        answer("ERR " + e.getMessage());
+                    }
+                }
+
+                else
+                {
+                    flush();
+
+                    if (command.equals("QUIT"))
+                        break;
+
+                    else if (command.equals("QUERY") && id != null)
+                        query(id);
+
+                    else if (command.equals("DROP") && id != null)
+                    {
+                        drop(id);
+                        answer("OK");
+                    }
+
+                    else
+                        answer("ERR unknown command: " + line);
+                }
+
+                // The client waits for an answer or has sent nothing more yet, so give it all we have.
+                if (!in.ready())
+                {
+                    flush();
+                    out.flush();
+                }
+            }
+
+            flush();
+            out.flush();
+        }
+
+        /**
+         * @param: line, a line.
+         * @param: from, the index where the word starts.
+         * @return: Returns the word of the line that starts at from, or null if it is empty.
+         */
+        private String word(String line, int from)
+        {
+            int end = line.indexOf(' ', from);
+            String word = end < 0 ? line.substring(from) : line.substring(from, end);
+            return word.isEmpty() ? null : word;
+        }
+
+        /**
+         * The function collects the keys of an INSERT line, and gives the batch to the tree every time it fills.
+         * The whole line is read before any key is collected, so a bad line changes nothing.
+         *
+         * @param: id, the stream.
+         * @param: line, the line.
+         * @param: from, the index after the stream ID.
+         */
+        private void insert(String id, String line, int from)
+        {
+            int count = parse(line, from);
+            int i = 0;
+
+            if (count == 0)
+                return;
+
+            // Another stream, or the stream was dropped since the batch started, so the keys go to a new batch.
+            if (!id.equals(batchId) || streams.get(id) != batchTree)
+            {
+                flush();
+                batchId = id;
+                batchTree = streams.computeIfAbsent(id, s -> new IntRedBlackTree(k));
+            }
+
+            while (i < count)
+            {
+                int n = Math.min(count - i, BATCH_SIZE - batchSize);
+
+                System.arraycopy(keys, i, batch, batchSize, n);
+                batchSize += n;
+                i += n;
+
+                if (batchSize == BATCH_SIZE)
+                    flush();
+            }
+        }
+
+        /**
+         * The function reads the keys of an INSERT line into keys, which grows when the line has more.
+         * The keys are parsed in place, so a line makes no string for each key.
+         *
+         * @param: line, the line.
+         * @param: from, the index after the stream ID.
+         * @return: Returns the count of keys.
+         */
+        private int parse(String line, int from)
+        {
+            int length = line.length();
+            int count = 0;
+            int i = from;
+
+            while (i < length)
+            {
+                long value = 0;
+                boolean negative = false;
+                int start;
+
+                while (i < length && line.charAt(i) == ' ')
+                    i++;
+
+                if (i == length)
+                    break;
+
+                if (line.charAt(i) == '-')
+                {
+                    negative = true;
+                    i++;
+                }
+
+                start = i;
+
+                while (i < length && line.charAt(i) >= '0' && line.charAt(i) <= '9' && value <= Integer.MAX_VALUE + 1L)
+                    value = value * 10 + (line.charAt(i++) - '0');
+
+                if (negative)
+                    value = -value;
+
+                if (i == start || (i < length && line.charAt(i) != ' ') || value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+                    throw new NumberFormatException("bad key at " + start + ": " + line);
+
+                if (count == keys.length)
+                    keys = Arrays.copyOf(keys, 2 * count);
+
+                keys[count++] = (int) value;
+            }
+
+            return count;
+        }
+
+        /**
+         * The function gives the collected keys to the tree of their stream, under the lock of the tree.
+         * The lock is held only while keys are inserted, which never waits, so it is a monitor even on a virtual thread.
+         * DROP takes the tree out of streams under the same lock, so if it came first the keys go away with the stream,
+         * and the stream is not made again.
+         */
+        private void flush()
+        {
+            if (batchSize == 0)
+                return;
+
+            synchronized (batchTree)
+            {
+                if (streams.get(batchId) == batchTree)
+                    prefilter.InsertAll(batchTree, batch, 0, batchSize);
+            }
+
+            batchSize = 0;
+        }
+
+        /**
+         * The function forgets a stream, under the lock of its tree, so no batch is given to the tree after it is gone.
+         *
+         * @param: id, the stream.
+         */
+        private void drop(String id)
+        {
+            IntRedBlackTree rbt = streams.get(id);
+
+            if (rbt != null)
+            {
+                synchronized (rbt)
+                {
+                    streams.remove(id, rbt);
+                }
+            }
+        }
+
+        /**
+         * The function answers a QUERY with the keys of the stream, copied under the lock of its tree.
+         *
+         * @param: id, the stream.
+         */
+        private void query(String id) throws IOException
+        {
+            IntRedBlackTree rbt = streams.get(id);
+            int [] keys;
+            int count = 0;
+
+            if (rbt == null)
+                keys = new int [0];
+
+            else
+            {
+                synchronized (rbt)
+                {
+                    keys = new int [rbt.size()];
+                    count = rbt.snapshot(keys);
+                }
+            }
+
+            out.write("OK ");
+            out.write(Integer.toString(count));
+
+            for (int i = 0; i < count; i++)
+            {
+                out.write(' ');
+                out.write(Integer.toString(keys[i]));
+            }
+
+            out.write('\n');
+        }
+
+        /**
+         * @param: message, the answer.
+         */
+        private void answer(String message) throws IOException
+        {
+            out.write(message);
+            out.write('\n');
+        }
+    }
+}
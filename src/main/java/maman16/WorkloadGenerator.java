@@ -0,0 +1,361 @@
+package maman16;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Class WorkloadGenerator
+ * This class makes inputs for kSmallest: arrays or binary files of random numbers in the range [min, max].
+ * The input is made in chunks, and every chunk has its own SplittableRandom split from one seed in a fixed order,
+ * so the chunks are filled in parallel and the same seed gives the same numbers on every run and on any number of cores.
+ * A file holds the same numbers as an array of the same size, 4 bytes each, big-endian, as KSmallestStream reads them.
+ * Any distribution can also take a part of its numbers from the pool of HEAVY_DUPLICATES, see setDuplicates().
+ *
+ * @author: Ofir Sasson and Amit Reuveni
+ * @version: 2017
+ */
+public class WorkloadGenerator
+{
+    /**
+     * The distributions of the numbers.
+     */
+    public enum Distribution
+    {
+        UNIFORM,            // Every number in the range is as likely.
+        SORTED,             // UNIFORM, sorted from small to big.
+        REVERSE_SORTED,     // UNIFORM, sorted from big to small.
+        ZIPF,               // The i'th number of the range comes with a chance of 1 / i^exponent, so min is the most common.
+        HEAVY_DUPLICATES    // Only POOL_SIZE different numbers of the range.
+    }
+
+    // GLOBAL VARIABLES.
+    private static final int CHUNK_SIZE = 1 << 16;      // The count of numbers in one chunk.
+    private static final int CHUNKS_PER_WRITE = 64;     // The count of chunks made together before they are written to a file.
+    private static final int POOL_SIZE = 16;            // The count of different numbers in HEAVY_DUPLICATES.
+    private static final double ZIPF_EXPONENT = 1.0;    // The default exponent of ZIPF.
+
+    private final Distribution distribution;
+    private final int min;                  // The smallest number.
+    private final long range;               // The count of numbers in [min, max].
+    private final long chunkSeed;           // The seed that the random of every chunk is split from.
+    private final int [] pool;              // The numbers of HEAVY_DUPLICATES.
+    private double duplicates;              // The chance that a number is replaced by one from the pool.
+
+    // The constants of the Zipf sampler.
+    private final double exponent;
+    private final double hIntegralX1;
+    private final double hIntegralN;
+    private final double squeeze;
+
+    /**
+     * Constructor which sets the distribution, the range and the seed, with the default exponent for ZIPF.
+     *
+     * @param: distribution, the distribution of the numbers.
+     * @param: min, the smallest number.
+     * @param: max, the largest number.
+     * @param: seed, the seed, the same seed gives the same numbers.
+     */
+    public WorkloadGenerator(Distribution distribution, int min, int max, long seed)
+    {
+        this(distribution, min, max, seed, ZIPF_EXPONENT);
+    }
+
+    /**
+     * Constructor which also sets the exponent of ZIPF.
+     *
+     * @param: distribution, the distribution of the numbers.
+     * @param: min, the smallest number.
+     * @param: max, the largest number.
+     * @param: seed, the seed, the same seed gives the same numbers.
+     * @param: exponent, the exponent of ZIPF, bigger than 0.
+     */
+    public WorkloadGenerator(Distribution distribution, int min, int max, long seed, double exponent)
+    {
+        SplittableRandom random = new SplittableRandom(seed);
+
+        if (min > max || !(exponent > 0))
+            throw new IllegalArgumentException("min must be <= max and exponent > 0");
+
+        this.distribution = distribution;
+        this.min = min;
+        this.range = (long) max - min + 1;
+        this.exponent = exponent;
+
+        pool = new int [POOL_SIZE];
+
+        for (int i = 0; i < POOL_SIZE; i++)
+            pool[i] = uniform(random);
+
+        chunkSeed = random.nextLong();
+
+        hIntegralX1 = hIntegral(1.5) - 1;
+        hIntegralN = hIntegral(range + 0.5);
+        squeeze = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+    }
+
+    /**
+     * The function makes a part of the numbers duplicates: every number is replaced, with this chance, by one of the
+     * POOL_SIZE numbers of HEAVY_DUPLICATES. The sorted distributions are sorted after that, so they stay sorted.
+     *
+     * @param: fraction, the chance, between 0 (the default, no change) and 1.
+     */
+    public void setDuplicates(double fraction)
+    {
+        if (!(fraction >= 0 && fraction <= 1))
+            throw new IllegalArgumentException("fraction must be between 0 and 1");
+
+        duplicates = fraction;
+    }
+
+    /**
+     * The function fills an array with numbers, in parallel.
+     *
+     * @param: array, the array we want to fill.
+     */
+    public void fill(int [] array)
+    {
+        fillChunks(array, array.length, new SplittableRandom(chunkSeed));
+
+        if (distribution == Distribution.SORTED || distribution == Distribution.REVERSE_SORTED)
+            Arrays.parallelSort(array);
+
+        if (distribution == Distribution.REVERSE_SORTED)
+        {
+            for (int i = 0, j = array.length - 1; i < j; i++, j--)
+            {
+                int temp = array[i];
+                array[i] = array[j];
+                array[j] = temp;
+            }
+        }
+    }
+
+    /**
+     * @param: n, the count of numbers.
+     * @return: Returns a new array of n numbers.
+     */
+    public int [] create(int n)
+    {
+        int [] array = new int [n];
+
+        fill(array);
+        return array;
+    }
+
+    /**
+     * The function writes n numbers to a file, the same numbers create(n) returns.
+     * Unsorted distributions are made and written a few chunks at a time, so the memory does not depend on n.
+     * The sorted ones must be sorted as a whole, so n must fit in an array.
+     *
+     * @param: path, the file, it is replaced if it exists.
+     * @param: n, the count of numbers.
+     */
+    public void write(Path path, long n) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE * CHUNKS_PER_WRITE * 4);
+            int [] array;
+
+            if (distribution == Distribution.SORTED || distribution == Distribution.REVERSE_SORTED)
+            {
+                array = create(Math.toIntExact(n));
+
+                for (int from = 0; from < array.length; from += CHUNK_SIZE * CHUNKS_PER_WRITE)
+                    write(channel, buffer, array, from, Math.min(array.length - from, CHUNK_SIZE * CHUNKS_PER_WRITE));
+            }
+
+            else
+            {
+                SplittableRandom random = new SplittableRandom(chunkSeed);
+                array = new int [CHUNK_SIZE * CHUNKS_PER_WRITE];
+
+                // The chunks are split from random in the same order as in fill, so the file matches the array.
+                for (long done = 0; done < n; done += array.length)
+                {
+                    int length = (int) Math.min(n - done, array.length);
+
+                    fillChunks(array, length, random);
+                    write(channel, buffer, array, 0, length);
+                }
+            }
+        }
+    }
+
+    /**
+     * The function writes numbers of an array to a channel.
+     *
+     * @param: channel, the file.
+     * @param: buffer, a buffer big enough for length numbers.
+     * @param: array, the numbers.
+     * @param: from, the index of the first number.
+     * @param: length, the count of numbers.
+     */
+    private static void write(FileChannel channel, ByteBuffer buffer, int [] array, int from, int length) throws IOException
+    {
+        buffer.clear();
+        buffer.asIntBuffer().put(array, from, length);
+        buffer.limit(length * 4);
+
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+
+    /**
+     * The function fills the first length numbers of an array, one chunk per task of the common ForkJoinPool.
+     * The random of every chunk is split from random before any chunk is filled, in the order of the chunks.
+     *
+     * @param: array, the array.
+     * @param: length, the count of numbers to fill.
+     * @param: random, the random the chunks are split from.
+     */
+    private void fillChunks(int [] array, int length, SplittableRandom random)
+    {
+        int chunks = (int) (((long) length + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        SplittableRandom [] randoms = new SplittableRandom [chunks];
+
+        for (int c = 0; c < chunks; c++)
+            randoms[c] = random.split();
+
+        // A small array is filled here, without waking up the pool.
+        if (chunks == 1)
+            fillChunk(array, 0, length, randoms[0]);
+
+        else
+        {
+            IntStream.range(0, chunks).parallel().forEach(c ->
+                fillChunk(array, c * CHUNK_SIZE, (int) Math.min(length, (long) (c + 1) * CHUNK_SIZE), randoms[c]));
+        }
+    }
+
+    /**
+     * The function fills one chunk.
+     *
+     * @param: array, the array.
+     * @param: from, the first index of the chunk.
+     * @param: to, the index after the chunk.
+     * @param: random, the random of the chunk.
+     */
+    private void fillChunk(int [] array, int from, int to, SplittableRandom random)
+    {
+        switch (distribution)
+        {
+            case ZIPF:
+                for (int i = from; i < to; i++)
+                    array[i] = (int) (min + zipf(random) - 1);
+                break;
+
+            case HEAVY_DUPLICATES:
+                for (int i = from; i < to; i++)
+                    array[i] = pool[random.nextInt(POOL_SIZE)];
+                break;
+
+            default:
+                for (int i = from; i < to; i++)
+                    array[i] = uniform(random);
+        }
+
+        // The random of the chunk goes on after the numbers, so the same seed still gives the same numbers.
+        if (duplicates > 0)
+        {
+            for (int i = from; i < to; i++)
+            {
+                if (random.nextDouble() < duplicates)
+                    array[i] = pool[random.nextInt(POOL_SIZE)];
+            }
+        }
+    }
+
+    /**
+     * @param: random, a random.
+     * @return: Returns a number in [min, max], every number is as likely.
+     */
+    private int uniform(SplittableRandom random)
+    {
+        return (int) (min + random.nextLong(range));
+    }
+
+    /**
+     * The rejection-inversion sampler of Hormann and Derflinger, it takes O(1) for any size of range, without a table.
+     *
+     * @param: random, a random.
+     * @return: Returns a number i in [1, range] with a chance of 1 / i^exponent.
+     */
+    private long zipf(SplittableRandom random)
+    {
+        while (true)
+        {
+            double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+            double x = hIntegralInverse(u);
+            long i = (long) (x + 0.5);
+
+            if (i < 1)
+                i = 1;
+
+            else if (i > range)
+                i = range;
+
+            if (i - x <= squeeze || u >= hIntegral(i + 0.5) - h(i))
+                return i;
+        }
+    }
+
+    /**
+     * @return: Returns x^-exponent.
+     */
+    private double h(double x)
+    {
+        return Math.exp(-exponent * Math.log(x));
+    }
+
+    /**
+     * @return: Returns the integral of h, (x^(1 - exponent) - 1) / (1 - exponent), or log(x) when the exponent is 1.
+     */
+    private double hIntegral(double x)
+    {
+        double logX = Math.log(x);
+        return expm1OverX((1 - exponent) * logX) * logX;
+    }
+
+    /**
+     * @return: Returns the inverse of hIntegral.
+     */
+    private double hIntegralInverse(double x)
+    {
+        double t = x * (1 - exponent);
+
+        if (t < -1)
+            t = -1;
+
+        return Math.exp(log1pOverX(t) * x);
+    }
+
+    /**
+     * @return: Returns log(1 + x) / x, and its Taylor series near 0.
+     */
+    private static double log1pOverX(double x)
+    {
+        if (Math.abs(x) > 1e-8)
+            return Math.log1p(x) / x;
+
+        return 1 - x * (0.5 - x * (1.0 / 3 - 0.25 * x));
+    }
+
+    /**
+     * @return: Returns (e^x - 1) / x, and its Taylor series near 0.
+     */
+    private static double expm1OverX(double x)
+    {
+        if (Math.abs(x) > 1e-8)
+            return Math.expm1(x) / x;
+
+        return 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x));
+    }
+}